@@ -0,0 +1,87 @@
+package com.launcher;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Замер разбора servers.json: обычный Gson с рефлексией против адаптеров ConfigJson.
+ * Список серверов синтетический: SERVERS серверов по MODS модов. В лаунчер не входит.
+ *
+ * Запуск из корня проекта (после сборки лаунчера в out):
+ *   javac -cp out:lib/com/google/code/gson/gson/2.11.0/gson-2.11.0.jar -d out-bench bench/com/launcher/ConfigJsonBench.java
+ *   java -cp out:out-bench:lib/com/google/code/gson/gson/2.11.0/gson-2.11.0.jar com.launcher.ConfigJsonBench
+ *
+ * Первый замер каждого варианта – холодный разбор (как при запуске лаунчера), затем после прогрева
+ * выводится среднее время одного разбора.
+ */
+public class ConfigJsonBench {
+
+    private static final int SERVERS = 50;
+    private static final int MODS = 200;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    public static void main(String[] args) throws IOException {
+        String json = syntheticList(SERVERS, MODS);
+        System.out.println("Размер списка: " + json.length() / 1024 + " КБ, серверов " + SERVERS + ", модов " + MODS);
+
+        // Холодный разбор: новый Gson, как делал ConfigLoader раньше, и общий ConfigJson.GSON
+        long start = System.nanoTime();
+        check(new Gson().fromJson(json, ServerList.class));
+        System.out.printf("Рефлексия, первый разбор: %.2f мс%n", (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        check(ConfigLoader.parse(new StringReader(json)));
+        System.out.printf("Адаптеры, первый разбор: %.2f мс%n", (System.nanoTime() - start) / 1e6);
+
+        Gson reflective = new Gson();
+        System.out.printf("Рефлексия: %.3f мс на разбор%n", measure(() -> reflective.fromJson(json, ServerList.class)));
+        System.out.printf("Адаптеры: %.3f мс на разбор%n", measure(() -> ConfigLoader.parse(new StringReader(json))));
+    }
+
+    private interface Parse {
+        ServerList run() throws IOException;
+    }
+
+    private static double measure(Parse parse) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            check(parse.run());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            check(parse.run());
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+
+    // Результат используется, чтобы JIT не выбросил разбор
+    private static void check(ServerList list) {
+        if (list.servers.size() != SERVERS || list.servers.get(SERVERS - 1).mods.size() != MODS) {
+            throw new IllegalStateException("Список разобран неверно");
+        }
+    }
+
+    private static String syntheticList(int servers, int mods) {
+        StringBuilder sb = new StringBuilder("{\"servers\":[");
+        for (int s = 0; s < servers; s++) {
+            if (s > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"name\":\"Server ").append(s).append("\",\"minecraft_version\":\"1.21.4\",")
+                    .append("\"fabric_version\":\"0.16.10\",\"forge_version\":\"\",")
+                    .append("\"download_link\":\"https://example.com/client.jar\",")
+                    .append("\"allow_custom_mods\":true,\"mods\":[");
+            for (int m = 0; m < mods; m++) {
+                if (m > 0) {
+                    sb.append(',');
+                }
+                sb.append("{\"name\":\"mod").append(m).append("\",\"url\":\"https://example.com/mods/mod")
+                        .append(m).append(".jar\",\"sha1\":\"").append(String.format("%040x", (long) s * mods + m))
+                        .append("\"}");
+            }
+            sb.append("]}");
+        }
+        return sb.append("]}").toString();
+    }
+}
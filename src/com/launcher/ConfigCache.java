@@ -0,0 +1,135 @@
+package com.launcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Кеш списка серверов: последний успешно загруженный servers.json хранится в cache/servers.json,
+ * его ETag и Last-Modified – в cache/servers.meta.
+ * При запуске список сразу берётся из кеша, а затем перепроверяется условным запросом
+ * (If-None-Match / If-Modified-Since): если файл на сервере не менялся, приходит пустой ответ 304.
+ * Без сети лаунчер работает с сохранённым списком.
+ */
+public class ConfigCache {
+
+    public static final String SERVERS_URL = "https://raw.githubusercontent.com/qpov/QmLauncher/refs/heads/main/servers.json";
+
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int READ_TIMEOUT = 10000;
+
+    private final String url;
+    private final File dataFile;
+    private final File metaFile;
+
+    public ConfigCache(File cacheDir, String url) {
+        this.url = url;
+        this.dataFile = new File(cacheDir, "servers.json");
+        this.metaFile = new File(cacheDir, "servers.meta");
+    }
+
+    // Сохранённый список или null, если кеша нет или он повреждён
+    public ServerList loadCached() {
+        if (!dataFile.isFile()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(dataFile), StandardCharsets.UTF_8)) {
+            return ConfigLoader.parse(reader);
+        } catch (IOException ex) {
+            System.out.println("Кеш списка серверов повреждён: " + ex.getMessage());
+            dataFile.delete();
+            metaFile.delete();
+            return null;
+        }
+    }
+
+    // Перепроверяет список на сервере; возвращает новый список или null, если он не изменился
+    public ServerList refresh() throws IOException {
+        Properties meta = loadMeta();
+        HttpURLConnection conn = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        conn.setConnectTimeout(CONNECT_TIMEOUT);
+        conn.setReadTimeout(READ_TIMEOUT);
+        // Условные заголовки – только если есть что отдавать при 304
+        if (dataFile.isFile() && url.equals(meta.getProperty("url"))) {
+            String etag = meta.getProperty("etag");
+            if (etag != null) {
+                conn.setRequestProperty("If-None-Match", etag);
+            }
+            String lastModified = meta.getProperty("lastModified");
+            if (lastModified != null) {
+                conn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+        try {
+            int code = conn.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                System.out.println("Список серверов не изменился");
+                return null;
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Сервер вернул код " + code + " для " + url);
+            }
+            byte[] body;
+            try (InputStream in = conn.getInputStream()) {
+                body = in.readAllBytes();
+            }
+            // Сначала разбираем: испорченный ответ не должен затереть рабочий кеш
+            ServerList list;
+            try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+                list = ConfigLoader.parse(reader);
+            }
+            save(body, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+            return list;
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private void save(byte[] body, String etag, String lastModified) {
+        File dir = dataFile.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        File tmp = new File(dataFile.getPath() + ".tmp");
+        try {
+            Files.write(tmp.toPath(), body);
+            Files.move(tmp.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Properties meta = new Properties();
+            meta.setProperty("url", url);
+            if (etag != null) {
+                meta.setProperty("etag", etag);
+            }
+            if (lastModified != null) {
+                meta.setProperty("lastModified", lastModified);
+            }
+            try (FileOutputStream fos = new FileOutputStream(metaFile)) {
+                meta.store(fos, "servers.json cache");
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить кеш списка серверов: " + ex.getMessage());
+        }
+    }
+
+    private Properties loadMeta() {
+        Properties meta = new Properties();
+        if (metaFile.isFile()) {
+            try (FileInputStream fis = new FileInputStream(metaFile)) {
+                meta.load(fis);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        return meta;
+    }
+}
@@ -0,0 +1,335 @@
+package com.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Общий экземпляр Gson лаунчера и разбор servers.json без рефлексии.
+ * ServerList, ServerConfig и ModConfig читаются потоково через JsonReader, обязательные поля
+ * проверяются сразу; ошибка называет поле, например "$.servers[3].download_link".
+ * Неизвестные поля пропускаются, чтобы старые лаунчеры читали новые списки.
+ */
+public class ConfigJson {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ServerList.class, new ServerListAdapter())
+            .registerTypeAdapter(ServerConfig.class, new ServerConfigAdapter())
+            .registerTypeAdapter(ModConfig.class, new ModConfigAdapter())
+            .create();
+
+    private static class ServerListAdapter extends TypeAdapter<ServerList> {
+        private final ServerConfigAdapter serverAdapter = new ServerConfigAdapter();
+
+        @Override
+        public ServerList read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ServerList list = new ServerList();
+            expect(in, JsonToken.BEGIN_OBJECT);
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("servers".equals(in.nextName())) {
+                    expect(in, JsonToken.BEGIN_ARRAY);
+                    list.servers = new ArrayList<>();
+                    Set<String> names = new HashSet<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        ServerConfig server = serverAdapter.read(in);
+                        if (server == null) {
+                            throw error(in.getPreviousPath(), "пустая запись сервера");
+                        }
+                        if (!names.add(server.name)) {
+                            throw error(in.getPreviousPath() + ".name", "имя сервера повторяется: " + server.name);
+                        }
+                        list.servers.add(server);
+                    }
+                    in.endArray();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return list;
+        }
+
+        @Override
+        public void write(JsonWriter out, ServerList list) throws IOException {
+            if (list == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("servers");
+            if (list.servers == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (ServerConfig server : list.servers) {
+                    serverAdapter.write(out, server);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+    }
+
+    private static class ServerConfigAdapter extends TypeAdapter<ServerConfig> {
+        private final ModConfigAdapter modAdapter = new ModConfigAdapter();
+
+        @Override
+        public ServerConfig read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ServerConfig server = new ServerConfig();
+            expect(in, JsonToken.BEGIN_OBJECT);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name":
+                        server.name = string(in);
+                        break;
+                    case "minecraft_version":
+                        server.minecraft_version = string(in);
+                        break;
+                    case "fabric_version":
+                        server.fabric_version = string(in);
+                        break;
+                    case "forge_version":
+                        server.forge_version = string(in);
+                        break;
+                    case "download_link":
+                        server.download_link = string(in);
+                        break;
+                    case "allow_custom_mods":
+                        expect(in, JsonToken.BOOLEAN);
+                        server.allow_custom_mods = in.nextBoolean();
+                        break;
+                    case "asset_index":
+                        server.asset_index = string(in);
+                        break;
+                    case "jvm_profile":
+                        server.jvm_profile = string(in);
+                        break;
+                    case "jvm_args":
+                        server.jvm_args = stringList(in);
+                        break;
+                    case "mods":
+                        server.mods = modList(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            require(in, "name", server.name);
+            require(in, "minecraft_version", server.minecraft_version);
+            require(in, "download_link", server.download_link);
+            if (isEmpty(server.fabric_version) && isEmpty(server.forge_version)) {
+                throw error(in.getPreviousPath(), "не указан загрузчик (fabric_version или forge_version)");
+            }
+            return server;
+        }
+
+        private List<ModConfig> modList(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            expect(in, JsonToken.BEGIN_ARRAY);
+            List<ModConfig> mods = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                ModConfig mod = modAdapter.read(in);
+                if (mod == null) {
+                    throw error(in.getPreviousPath(), "пустая запись мода");
+                }
+                mods.add(mod);
+            }
+            in.endArray();
+            return mods;
+        }
+
+        @Override
+        public void write(JsonWriter out, ServerConfig server) throws IOException {
+            if (server == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("name").value(server.name);
+            out.name("minecraft_version").value(server.minecraft_version);
+            out.name("fabric_version").value(server.fabric_version);
+            out.name("forge_version").value(server.forge_version);
+            out.name("download_link").value(server.download_link);
+            out.name("allow_custom_mods").value(server.allow_custom_mods);
+            if (server.asset_index != null) {
+                out.name("asset_index").value(server.asset_index);
+            }
+            if (server.jvm_profile != null) {
+                out.name("jvm_profile").value(server.jvm_profile);
+            }
+            if (server.jvm_args != null) {
+                out.name("jvm_args").beginArray();
+                for (String arg : server.jvm_args) {
+                    out.value(arg);
+                }
+                out.endArray();
+            }
+            if (server.mods != null) {
+                out.name("mods").beginArray();
+                for (ModConfig mod : server.mods) {
+                    modAdapter.write(out, mod);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+    }
+
+    private static class ModConfigAdapter extends TypeAdapter<ModConfig> {
+        @Override
+        public ModConfig read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ModConfig mod = new ModConfig();
+            expect(in, JsonToken.BEGIN_OBJECT);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name":
+                        mod.name = string(in);
+                        break;
+                    case "url":
+                        mod.url = string(in);
+                        break;
+                    case "sha1":
+                        mod.sha1 = string(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            require(in, "name", mod.name);
+            require(in, "url", mod.url);
+            if (mod.sha1 != null && !isSha1(mod.sha1)) {
+                throw error(in.getPreviousPath() + ".sha1", "ожидается SHA-1 из 40 шестнадцатеричных символов");
+            }
+            return mod;
+        }
+
+        @Override
+        public void write(JsonWriter out, ModConfig mod) throws IOException {
+            if (mod == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("name").value(mod.name);
+            out.name("url").value(mod.url);
+            if (mod.sha1 != null) {
+                out.name("sha1").value(mod.sha1);
+            }
+            out.endObject();
+        }
+    }
+
+    // Строка или null; число вместо строки – ошибка с путём поля
+    private static String string(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        expect(in, JsonToken.STRING);
+        return in.nextString();
+    }
+
+    private static List<String> stringList(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        expect(in, JsonToken.BEGIN_ARRAY);
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(string(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+    private static void expect(JsonReader in, JsonToken token) throws IOException {
+        JsonToken actual = in.peek();
+        if (actual != token) {
+            throw error(in.getPath(), "ожидается " + describe(token) + ", получено " + describe(actual));
+        }
+    }
+
+    // Вызывается сразу после endObject(): путь к объекту строится только при ошибке
+    private static void require(JsonReader in, String field, String value) {
+        if (isEmpty(value)) {
+            throw error(in.getPreviousPath() + "." + field, "обязательное поле не заполнено");
+        }
+    }
+
+    // 40 шестнадцатеричных символов; без регулярного выражения – проверка идёт для каждого мода
+    private static boolean isSha1(String value) {
+        if (value.length() != 40) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static String describe(JsonToken token) {
+        switch (token) {
+            case BEGIN_OBJECT:
+                return "объект";
+            case BEGIN_ARRAY:
+                return "массив";
+            case STRING:
+                return "строка";
+            case NUMBER:
+                return "число";
+            case BOOLEAN:
+                return "true/false";
+            case NULL:
+                return "null";
+            default:
+                return token.name();
+        }
+    }
+
+    private static JsonParseException error(String path, String message) {
+        return new JsonParseException(path + ": " + message);
+    }
+}
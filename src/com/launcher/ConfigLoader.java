@@ -1,29 +1,20 @@
 package com.launcher;
 
-import com.google.gson.Gson;
-import java.io.FileReader;
-import java.io.InputStreamReader;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
 import java.io.Reader;
-import java.net.URL;
-import java.net.URLConnection;
 
 public class ConfigLoader {
-    public static ServerList loadServerConfigs(String filePath) {
+    // Разбор servers.json; пустой или некорректный список – ошибка с именем поля, а не null
+    public static ServerList parse(Reader reader) throws IOException {
         try {
-            Reader reader;
-            if (filePath.startsWith("https")) {
-                URL url = new URL(filePath);
-                URLConnection conn = url.openConnection();
-                conn.setConnectTimeout(10000);
-                conn.setReadTimeout(10000);
-                reader = new InputStreamReader(conn.getInputStream());
-            } else {
-                reader = new FileReader(filePath);
+            ServerList list = ConfigJson.GSON.fromJson(reader, ServerList.class);
+            if (list == null || list.servers == null) {
+                throw new IOException("В списке серверов нет поля servers");
             }
-            return new Gson().fromJson(reader, ServerList.class);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            return list;
+        } catch (JsonParseException ex) {
+            throw new IOException("Некорректный список серверов: " + ex.getMessage(), ex);
         }
     }
 }
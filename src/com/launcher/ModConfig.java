@@ -3,4 +3,6 @@ package com.launcher;
 public class ModConfig {
     public String name;
     public String url;
+    // SHA-1 файла мода (hex); если не задан, мод проверяется по адресу, с которого он скачан
+    public String sha1;
 }
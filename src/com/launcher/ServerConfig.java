@@ -9,5 +9,11 @@ public class ServerConfig {
     public String forge_version;
     public String download_link;
     public boolean allow_custom_mods;
+    // Id индекса ассетов версии (assets/indexes/<id>.json, --assetIndex); пусто – AssetIndex.DEFAULT_ID
+    public String asset_index;
+    // Профиль JVM для этого сервера (имя JvmProfile) вместо выбранного в настройках
+    public String jvm_profile;
+    // Дополнительные аргументы JVM, добавляются после аргументов профиля
+    public List<String> jvm_args;
     public List<ModConfig> mods;
 }
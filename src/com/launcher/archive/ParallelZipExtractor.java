@@ -0,0 +1,267 @@
+package com.launcher.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Параллельная распаковка zip-архива (в том числе разбитого на части).
+ * Сначала читается центральный каталог в конце архива, затем записи распаковываются
+ * независимо друг от друга в пуле потоков: каждая запись читается по своему смещению,
+ * выходной файл заранее получает итоговый размер.
+ */
+public class ParallelZipExtractor {
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final ExecutorService pool;
+
+    public ParallelZipExtractor(ExecutorService pool) {
+        this.pool = pool;
+    }
+
+    // Распаковывает архив из частей parts в targetDir, возвращает число распакованных файлов
+    public int extract(List<File> parts, File targetDir) throws IOException {
+        try (SplitArchiveChannel archive = new SplitArchiveChannel(parts)) {
+            List<Entry> entries = readCentralDirectory(archive);
+
+            // Папки создаём заранее, чтобы потоки не соревновались за mkdirs
+            List<Entry> files = new ArrayList<>();
+            for (Entry entry : entries) {
+                File outFile = ZipExtractor.resolve(targetDir, entry.name);
+                if (entry.name.endsWith("/")) {
+                    outFile.mkdirs();
+                } else {
+                    File parent = outFile.getParentFile();
+                    if (parent != null && !parent.isDirectory()) {
+                        parent.mkdirs();
+                    }
+                    entry.target = outFile;
+                    files.add(entry);
+                }
+            }
+            // Крупные записи первыми, чтобы потоки заканчивали примерно одновременно
+            files.sort((a, b) -> Long.compare(b.compressedSize, a.compressedSize));
+
+            List<Future<?>> running = new ArrayList<>();
+            for (Entry entry : files) {
+                running.add(pool.submit(() -> {
+                    extractEntry(archive, entry);
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Распаковка прервана", ex);
+            } catch (ExecutionException ex) {
+                for (Future<?> future : running) {
+                    future.cancel(true);
+                }
+                Throwable cause = ex.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+            return files.size();
+        }
+    }
+
+    private List<Entry> readCentralDirectory(SplitArchiveChannel archive) throws IOException {
+        long size = archive.size();
+        int tailSize = (int) Math.min(size, EOCD_SIZE + MAX_COMMENT);
+        ByteBuffer tail = read(archive, size - tailSize, tailSize);
+        int eocd = -1;
+        for (int i = tailSize - EOCD_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIGNATURE) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new IOException("Не найден центральный каталог zip-архива");
+        }
+        long entryCount = tail.getShort(eocd + 10) & 0xFFFF;
+        long cdSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+        long cdOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+
+        // Zip64: реальные значения лежат в отдельной записи перед EOCD
+        if (entryCount == 0xFFFF || cdSize == 0xFFFFFFFFL || cdOffset == 0xFFFFFFFFL) {
+            int locator = eocd - 20;
+            if (locator < 0 || tail.getInt(locator) != ZIP64_LOCATOR_SIGNATURE) {
+                throw new IOException("Повреждён zip64-архив");
+            }
+            ByteBuffer zip64 = read(archive, tail.getLong(locator + 8), 56);
+            if (zip64.getInt(0) != ZIP64_EOCD_SIGNATURE) {
+                throw new IOException("Повреждён zip64-архив");
+            }
+            entryCount = zip64.getLong(32);
+            cdSize = zip64.getLong(40);
+            cdOffset = zip64.getLong(48);
+        }
+
+        ByteBuffer cd = read(archive, cdOffset, (int) cdSize);
+        List<Entry> entries = new ArrayList<>((int) entryCount);
+        int pos = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (cd.getInt(pos) != CENTRAL_SIGNATURE) {
+                throw new IOException("Повреждён центральный каталог zip-архива");
+            }
+            Entry entry = new Entry();
+            entry.method = cd.getShort(pos + 10) & 0xFFFF;
+            entry.crc = cd.getInt(pos + 16) & 0xFFFFFFFFL;
+            entry.compressedSize = cd.getInt(pos + 20) & 0xFFFFFFFFL;
+            entry.size = cd.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = cd.getShort(pos + 28) & 0xFFFF;
+            int extraLength = cd.getShort(pos + 30) & 0xFFFF;
+            int commentLength = cd.getShort(pos + 32) & 0xFFFF;
+            entry.localHeaderOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+            byte[] name = new byte[nameLength];
+            cd.position(pos + 46);
+            cd.get(name);
+            entry.name = new String(name, StandardCharsets.UTF_8);
+            readZip64Extra(cd, pos + 46 + nameLength, extraLength, entry);
+            entries.add(entry);
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    // Поле 0x0001 содержит 64-битные размеры и смещение, если в основном заголовке 0xFFFFFFFF
+    private void readZip64Extra(ByteBuffer cd, int start, int length, Entry entry) {
+        int pos = start;
+        while (pos + 4 <= start + length) {
+            int id = cd.getShort(pos) & 0xFFFF;
+            int size = cd.getShort(pos + 2) & 0xFFFF;
+            if (id == 0x0001) {
+                int field = pos + 4;
+                if (entry.size == 0xFFFFFFFFL) {
+                    entry.size = cd.getLong(field);
+                    field += 8;
+                }
+                if (entry.compressedSize == 0xFFFFFFFFL) {
+                    entry.compressedSize = cd.getLong(field);
+                    field += 8;
+                }
+                if (entry.localHeaderOffset == 0xFFFFFFFFL) {
+                    entry.localHeaderOffset = cd.getLong(field);
+                }
+                return;
+            }
+            pos += 4 + size;
+        }
+    }
+
+    private void extractEntry(SplitArchiveChannel archive, Entry entry) throws IOException {
+        ByteBuffer local = read(archive, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (local.getInt(0) != LOCAL_SIGNATURE) {
+            throw new IOException("Повреждён локальный заголовок записи: " + entry.name);
+        }
+        long dataOffset = entry.localHeaderOffset + LOCAL_HEADER_SIZE
+                + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile raf = new RandomAccessFile(entry.target, "rw")) {
+            raf.setLength(entry.size);
+            FileChannel out = raf.getChannel();
+            ByteBuffer in = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(entry.compressedSize, 1)));
+            long remaining = entry.compressedSize;
+            long readPosition = dataOffset;
+            long written = 0;
+            if (entry.method == METHOD_STORED) {
+                while (remaining > 0) {
+                    in.clear();
+                    in.limit((int) Math.min(in.capacity(), remaining));
+                    archive.readFully(in, readPosition);
+                    readPosition += in.limit();
+                    remaining -= in.limit();
+                    crc.update(in.array(), 0, in.limit());
+                    in.flip();
+                    while (in.hasRemaining()) {
+                        written += out.write(in, written);
+                    }
+                }
+            } else if (entry.method == METHOD_DEFLATED) {
+                Inflater inflater = new Inflater(true);
+                byte[] output = new byte[(int) Math.min(BUFFER_SIZE, Math.max(entry.size, 1))];
+                try {
+                    while (!inflater.finished()) {
+                        if (inflater.needsInput()) {
+                            if (remaining <= 0) {
+                                throw new IOException("Неожиданный конец сжатых данных: " + entry.name);
+                            }
+                            in.clear();
+                            in.limit((int) Math.min(in.capacity(), remaining));
+                            archive.readFully(in, readPosition);
+                            readPosition += in.limit();
+                            remaining -= in.limit();
+                            inflater.setInput(in.array(), 0, in.limit());
+                        }
+                        int n = inflater.inflate(output);
+                        if (n > 0) {
+                            crc.update(output, 0, n);
+                            ByteBuffer chunk = ByteBuffer.wrap(output, 0, n);
+                            while (chunk.hasRemaining()) {
+                                written += out.write(chunk, written);
+                            }
+                        } else if (inflater.needsDictionary()) {
+                            throw new IOException("Неподдерживаемый формат записи: " + entry.name);
+                        }
+                    }
+                } catch (DataFormatException ex) {
+                    throw new IOException("Повреждены сжатые данные: " + entry.name, ex);
+                } finally {
+                    inflater.end();
+                }
+            } else {
+                throw new IOException("Неподдерживаемый метод сжатия " + entry.method + ": " + entry.name);
+            }
+            if (written != entry.size || crc.getValue() != entry.crc) {
+                throw new IOException("Контрольная сумма не совпадает: " + entry.name);
+            }
+        }
+    }
+
+    private static ByteBuffer read(SplitArchiveChannel archive, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        archive.readFully(buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    // Запись центрального каталога
+    private static class Entry {
+        String name;
+        int method;
+        long crc;
+        long compressedSize;
+        long size;
+        long localHeaderOffset;
+        File target;
+    }
+}
@@ -0,0 +1,88 @@
+package com.launcher.archive;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Произвольный доступ к частям разбитого архива как к одному файлу.
+ * Чтение по позиции идёт через FileChannel каждой части и безопасно из нескольких потоков,
+ * поэтому записи архива можно распаковывать параллельно без склейки частей на диске.
+ */
+public class SplitArchiveChannel implements Closeable {
+
+    private final FileChannel[] channels;
+    // Смещение начала каждой части в общем архиве
+    private final long[] offsets;
+    private final long size;
+
+    public SplitArchiveChannel(List<File> parts) throws IOException {
+        channels = new FileChannel[parts.size()];
+        offsets = new long[parts.size()];
+        long total = 0;
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                channels[i] = FileChannel.open(parts.get(i).toPath(), StandardOpenOption.READ);
+                offsets[i] = total;
+                total += channels[i].size();
+            }
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+        size = total;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Заполняет dst целиком, начиная с позиции position общего архива
+    public void readFully(ByteBuffer dst, long position) throws IOException {
+        while (dst.hasRemaining()) {
+            if (position >= size) {
+                throw new EOFException("Неожиданный конец архива");
+            }
+            int part = partAt(position);
+            long partEnd = part + 1 < offsets.length ? offsets[part + 1] : size;
+            int limit = dst.limit();
+            if (dst.remaining() > partEnd - position) {
+                dst.limit(dst.position() + (int) (partEnd - position));
+            }
+            int n = channels[part].read(dst, position - offsets[part]);
+            dst.limit(limit);
+            if (n < 0) {
+                throw new EOFException("Неожиданный конец части архива");
+            }
+            position += n;
+        }
+    }
+
+    private int partAt(long position) {
+        int low = 0;
+        int high = offsets.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
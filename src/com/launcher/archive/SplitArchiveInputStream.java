@@ -0,0 +1,86 @@
+package com.launcher.archive;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Поток, читающий части разбитого архива (name.zip.001, name.zip.002, ...) одну за другой,
+ * как будто это один файл – аналог SequenceInputStream.
+ * Каждая часть задаётся Future: если часть ещё качается, чтение ждёт её готовности,
+ * поэтому распаковка идёт параллельно со скачиванием и объединённый файл на диске не нужен.
+ */
+public class SplitArchiveInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final List<? extends Future<File>> parts;
+    private int nextPart = 0;
+    private InputStream current;
+    private final byte[] single = new byte[1];
+
+    public SplitArchiveInputStream(List<? extends Future<File>> parts) {
+        this.parts = parts;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (current == null && !openNextPart()) {
+                return -1;
+            }
+            int n = current.read(b, off, len);
+            if (n != -1) {
+                return n;
+            }
+            current.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current == null ? 0 : current.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        nextPart = parts.size();
+    }
+
+    // Ждём, пока следующая часть будет скачана, и открываем её
+    private boolean openNextPart() throws IOException {
+        if (nextPart >= parts.size()) {
+            return false;
+        }
+        File file;
+        try {
+            file = parts.get(nextPart++).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Чтение архива прервано", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Часть архива не скачана: " + ex.getCause().getMessage(), ex.getCause());
+        }
+        current = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.launcher.archive;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Последовательная распаковка zip-архивов лаунчера (assets, lib, native) из потока.
+ * Подходит для распаковки прямо во время скачивания; для уже скачанных архивов
+ * быстрее ParallelZipExtractor.
+ */
+public class ZipExtractor {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    // Распаковка zip-архива из потока (например, SplitArchiveInputStream) в указанную директорию,
+    // возвращает число распакованных файлов
+    public static int extract(InputStream in, File targetDir) throws IOException {
+        int count = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (ZipInputStream zis = new ZipInputStream(in)) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                File outFile = resolve(targetDir, entry.getName());
+                if (entry.isDirectory()) {
+                    outFile.mkdirs();
+                } else {
+                    File parent = outFile.getParentFile();
+                    if (!parent.exists()) {
+                        parent.mkdirs();
+                    }
+                    try (FileOutputStream fos = new FileOutputStream(outFile)) {
+                        int len;
+                        while ((len = zis.read(buffer)) > 0) {
+                            fos.write(buffer, 0, len);
+                        }
+                    }
+                    count++;
+                }
+                zis.closeEntry();
+            }
+        }
+        return count;
+    }
+
+    // Путь записи внутри targetDir; записи вида "../" за пределы папки не допускаются
+    static File resolve(File targetDir, String entryName) throws IOException {
+        Path base = targetDir.toPath().toAbsolutePath().normalize();
+        Path outPath = base.resolve(entryName).normalize();
+        if (!outPath.startsWith(base)) {
+            throw new IOException("Запись архива вне папки распаковки: " + entryName);
+        }
+        return outPath.toFile();
+    }
+}
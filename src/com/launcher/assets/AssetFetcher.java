@@ -0,0 +1,70 @@
+package com.launcher.assets;
+
+import com.launcher.assets.AssetIndex.AssetObject;
+import com.launcher.download.DownloadManager;
+import com.launcher.download.DownloadTask;
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Установка ассетов по индексу вместо архивов assets.zip.*.
+ * Индекс сравнивается с тем, что уже лежит в assets/objects, и скачиваются только
+ * отсутствующие или повреждённые объекты – по одному файлу на хеш. При смене индекса
+ * (новая версия Minecraft) качается только разница.
+ */
+public class AssetFetcher {
+
+    public static final String DEFAULT_OBJECTS_URL = "https://resources.download.minecraft.net/";
+    // Объекты мелкие, поэтому соединений больше, чем для обычной загрузки;
+    // keep-alive позволяет переиспользовать их между запросами (см. http.maxConnections)
+    public static final int CONNECTIONS = 32;
+
+    private final File assetsDir;
+    private final String objectsUrl;
+    private final AssetVerifier verifier;
+
+    public AssetFetcher(File assetsDir, String objectsUrl, HashCache hashCache) {
+        this.assetsDir = assetsDir;
+        this.objectsUrl = objectsUrl.endsWith("/") ? objectsUrl : objectsUrl + "/";
+        this.verifier = new AssetVerifier(assetsDir, hashCache);
+    }
+
+    public File indexFile(String id) {
+        return new File(new File(assetsDir, "indexes"), id + ".json");
+    }
+
+    // Читает индекс; если его нет локально и указан indexUrl – сначала скачивает
+    public AssetIndex loadIndex(String id, String indexUrl) throws IOException {
+        File indexFile = indexFile(id);
+        if (!indexFile.isFile() && indexUrl != null && !indexUrl.isEmpty()) {
+            System.out.println("Скачивание индекса ассетов: " + indexUrl);
+            new DownloadManager(1).download(indexUrl, indexFile, null);
+        }
+        return AssetIndex.load(assetsDir, id);
+    }
+
+    // Объекты индекса, которых нет на диске или которые повреждены
+    public List<AssetObject> findMissing(AssetIndex index) throws IOException {
+        return verifier.findBroken(index);
+    }
+
+    // Повторная проверка после скачивания: возвращает объекты, которые так и не совпали с индексом
+    public List<AssetObject> verify(List<AssetObject> objects) throws IOException {
+        return verifier.findBroken(objects);
+    }
+
+    // Задачи на скачивание объектов; повреждённые копии удаляются, чтобы не считаться уже скачанными
+    public List<DownloadTask> tasks(List<AssetObject> objects) {
+        List<DownloadTask> tasks = new ArrayList<>(objects.size());
+        for (AssetObject object : objects) {
+            File objectFile = verifier.objectFile(object);
+            objectFile.delete();
+            tasks.add(new DownloadTask(objectsUrl + object.path(), objectFile, object.size));
+        }
+        return tasks;
+    }
+}
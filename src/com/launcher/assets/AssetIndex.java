@@ -0,0 +1,54 @@
+package com.launcher.assets;
+
+import com.launcher.ConfigJson;
+import com.launcher.ServerConfig;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Индекс ассетов Minecraft (assets/indexes/<id>.json): имя ресурса -> хеш и размер объекта.
+ * Сами объекты лежат в assets/objects/<первые два символа хеша>/<хеш>.
+ */
+public class AssetIndex {
+
+    // Индекс версии 1.21.4 – для серверов, у которых в servers.json нет asset_index
+    public static final String DEFAULT_ID = "19";
+
+    public Map<String, AssetObject> objects;
+
+    public static class AssetObject {
+        public String hash;
+        public long size;
+
+        // Относительный путь объекта внутри assets/objects
+        public String path() {
+            return hash.substring(0, 2) + "/" + hash;
+        }
+    }
+
+    // Id индекса ассетов сервера: им же проверяются ассеты и запускается игра (--assetIndex)
+    public static String idFor(ServerConfig server) {
+        if (server != null && server.asset_index != null && !server.asset_index.trim().isEmpty()) {
+            return server.asset_index.trim();
+        }
+        return DEFAULT_ID;
+    }
+
+    public static AssetIndex load(File assetsDir, String id) throws IOException {
+        File indexFile = new File(new File(assetsDir, "indexes"), id + ".json");
+        try (Reader reader = new FileReader(indexFile, StandardCharsets.UTF_8)) {
+            AssetIndex index = ConfigJson.GSON.fromJson(reader, AssetIndex.class);
+            if (index == null || index.objects == null) {
+                throw new IOException("Пустой индекс ассетов: " + indexFile.getPath());
+            }
+            return index;
+        } catch (RuntimeException ex) {
+            throw new IOException("Не удалось прочитать индекс ассетов: " + indexFile.getPath(), ex);
+        }
+    }
+}
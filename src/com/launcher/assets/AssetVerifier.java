@@ -0,0 +1,97 @@
+package com.launcher.assets;
+
+import com.launcher.assets.AssetIndex.AssetObject;
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Проверка объектов assets/objects по индексу ассетов.
+ * Сначала сравнивается размер файла, SHA-1 считается только для файлов нужного размера
+ * и только если файл изменился с прошлой проверки (см. HashCache).
+ * Результат – список отсутствующих и повреждённых объектов, которые можно докачать по одному.
+ */
+public class AssetVerifier {
+
+    private final File objectsDir;
+    private final HashCache hashCache;
+
+    public AssetVerifier(File assetsDir, HashCache hashCache) {
+        this.objectsDir = new File(assetsDir, "objects");
+        this.hashCache = hashCache;
+    }
+
+    public File objectFile(AssetObject object) {
+        return new File(objectsDir, object.path());
+    }
+
+    // Возвращает объекты, которых нет на диске или содержимое которых не совпадает с индексом
+    public List<AssetObject> findBroken(AssetIndex index) throws IOException {
+        // Несколько ресурсов могут ссылаться на один объект – проверяем каждый хеш один раз
+        Map<String, AssetObject> unique = new LinkedHashMap<>();
+        for (AssetObject object : index.objects.values()) {
+            unique.putIfAbsent(object.hash, object);
+        }
+        return findBroken(new ArrayList<>(unique.values()));
+    }
+
+    public List<AssetObject> findBroken(List<AssetObject> objects) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunk = Math.max(1, (objects.size() + threads * 4 - 1) / (threads * 4));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<AssetObject>>> results = new ArrayList<>();
+            for (int from = 0; from < objects.size(); from += chunk) {
+                List<AssetObject> slice = objects.subList(from, Math.min(from + chunk, objects.size()));
+                results.add(pool.submit(() -> check(slice)));
+            }
+            List<AssetObject> broken = new ArrayList<>();
+            for (Future<List<AssetObject>> result : results) {
+                broken.addAll(result.get());
+            }
+            hashCache.save();
+            return broken;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Проверка ассетов прервана", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Ошибка проверки ассетов", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<AssetObject> check(List<AssetObject> objects) throws IOException {
+        List<AssetObject> broken = new ArrayList<>();
+        for (AssetObject object : objects) {
+            Path path = objectFile(object).toPath();
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException ex) {
+                broken.add(object);
+                continue;
+            }
+            // Размер – дёшево, хеш – только если размер совпал (и берётся из кеша, если файл не менялся)
+            if (!attrs.isRegularFile() || attrs.size() != object.size
+                    || !object.hash.equalsIgnoreCase(hashCache.sha1(path, attrs))) {
+                broken.add(object);
+            }
+        }
+        return broken;
+    }
+}
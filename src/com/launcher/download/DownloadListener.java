@@ -0,0 +1,11 @@
+package com.launcher.download;
+
+/**
+ * Слушатель прогресса загрузки.
+ * Вызывается из рабочих потоков DownloadManager, поэтому обновлять Swing-компоненты
+ * нужно через SwingUtilities.invokeLater или SwingWorker.publish.
+ */
+public interface DownloadListener {
+    // downloaded – сколько байт скачано по всем файлам, total – сколько всего известно (или -1)
+    void onProgress(long downloaded, long total);
+}
@@ -0,0 +1,548 @@
+package com.launcher.download;
+
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Параллельный загрузчик файлов.
+ * Все файлы качаются одновременно пулом из ограниченного числа потоков,
+ * крупные файлы (например, client.jar) дополнительно делятся на части через HTTP Range.
+ * Прогресс суммируется по байтам всех файлов.
+ * Файл пишется в *.part с журналом скачанных диапазонов (PartJournal), поэтому
+ * после обрыва связи (в том же запуске или после перезапуска) докачивается только недостающее.
+ * Уже лежащий на месте файл не качается заново, если совпадает его SHA-1 (когда он известен)
+ * или ETag, адрес и размер, записанные после прошлой загрузки (DownloadRecords).
+ */
+public class DownloadManager {
+
+    public static final int DEFAULT_CONNECTIONS = 8;
+
+    private static final int CONNECT_TIMEOUT = 10000;
+    private static final int READ_TIMEOUT = 10000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Файлы крупнее этого размера качаются несколькими Range-запросами
+    private static final long SPLIT_THRESHOLD = 8L * 1024 * 1024;
+    // Минимальный размер одной части при разбиении
+    private static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+    // Как часто (в байтах) сохранять журнал скачанных диапазонов
+    private static final long JOURNAL_FLUSH_BYTES = 1024 * 1024;
+    // Число попыток докачать часть файла после обрыва
+    private static final int MAX_ATTEMPTS = 4;
+    // Сколько раз начинать заново файл, изменившийся на сервере во время загрузки
+    private static final int MAX_RESTARTS = 1;
+
+    private final int maxConnections;
+    private final DownloadRecords records = DownloadRecords.getDefault();
+
+    public DownloadManager() {
+        this(DEFAULT_CONNECTIONS);
+    }
+
+    public DownloadManager(int maxConnections) {
+        this.maxConnections = Math.max(1, maxConnections);
+    }
+
+    // Скачивание одного файла
+    public void download(String url, File destination, DownloadListener listener) throws IOException {
+        downloadAll(Collections.singletonList(new DownloadTask(url, destination)), listener);
+    }
+
+    // Скачивание набора файлов: сначала узнаём размеры, затем качаем все части параллельно
+    public void downloadAll(List<DownloadTask> tasks, DownloadListener listener) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(maxConnections, r -> {
+            Thread t = new Thread(r, "download-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            runDownloads(pool, tasks, listener);
+        } catch (IOException | RuntimeException ex) {
+            // Сообщаем об ошибке тем, кто ждёт отдельные файлы (например, распаковке)
+            for (DownloadTask task : tasks) {
+                task.completion.completeExceptionally(ex);
+            }
+            throw ex;
+        } finally {
+            pool.shutdownNow();
+            records.save();
+        }
+    }
+
+    private void runDownloads(ExecutorService pool, List<DownloadTask> tasks, DownloadListener listener)
+            throws IOException {
+        List<Future<RemoteFile>> probes = new ArrayList<>();
+        for (DownloadTask task : tasks) {
+            probes.add(pool.submit(() -> probe(task)));
+        }
+        List<RemoteFile> files = new ArrayList<>();
+        for (Future<RemoteFile> probe : probes) {
+            files.add(await(probe));
+        }
+
+        AtomicLong downloaded = new AtomicLong();
+        long total = 0;
+        List<Segment> segments = new ArrayList<>();
+        for (RemoteFile file : files) {
+            if (total >= 0) {
+                total = file.length >= 0 ? total + file.length : -1;
+            }
+            List<Segment> planned = planSegments(file);
+            file.remainingSegments.set(planned.size());
+            file.activeSegments.set(planned.size());
+            segments.addAll(planned);
+            file.received.set(file.alreadyDownloaded);
+            downloaded.addAndGet(file.alreadyDownloaded);
+            if (planned.isEmpty()) {
+                complete(file);
+            }
+        }
+        Batch batch = new Batch(pool, downloaded, total, listener);
+        if (listener != null && downloaded.get() > 0) {
+            listener.onProgress(downloaded.get(), total);
+        }
+        batch.submit(segments);
+        try {
+            while (batch.pending.get() > 0) {
+                Future<Void> done = batch.completion.take();
+                batch.pending.decrementAndGet();
+                await(done);
+            }
+        } catch (IOException ex) {
+            synchronized (batch.running) {
+                for (Future<Void> f : batch.running) {
+                    f.cancel(true);
+                }
+            }
+            throw ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка прервана", ex);
+        }
+    }
+
+    // Части файлов, которые качаются сейчас. Части файла, изменившегося на сервере, останавливаются,
+    // и последняя из них начинает файл заново новыми частями
+    private class Batch {
+        final CompletionService<Void> completion;
+        final List<Future<Void>> running = Collections.synchronizedList(new ArrayList<>());
+        // Отправлено, но ещё не забрано из completion
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicLong downloaded;
+        final long total;
+        final DownloadListener listener;
+
+        Batch(ExecutorService pool, AtomicLong downloaded, long total, DownloadListener listener) {
+            this.completion = new ExecutorCompletionService<>(pool);
+            this.downloaded = downloaded;
+            this.total = total;
+            this.listener = listener;
+        }
+
+        void submit(List<Segment> segments) {
+            for (Segment segment : segments) {
+                pending.incrementAndGet();
+                running.add(completion.submit(() -> {
+                    run(segment);
+                    return null;
+                }));
+            }
+        }
+
+        private void run(Segment segment) throws IOException {
+            RemoteFile file = segment.file;
+            try {
+                fetchSegment(segment, downloaded, total, listener);
+                // Последняя часть файла готова – файл можно отдавать дальше, не дожидаясь остальных
+                if (file.remainingSegments.decrementAndGet() == 0) {
+                    complete(file);
+                }
+            } catch (RemoteChangedException ex) {
+                // Файл начнётся заново, когда остановятся все его части
+            } finally {
+                // Новые части отправляются до завершения этой, поэтому pending не обнуляется раньше времени
+                if (file.activeSegments.decrementAndGet() == 0 && file.changed) {
+                    submit(restart(file, downloaded));
+                }
+            }
+        }
+    }
+
+    // Файл на сервере изменился посреди загрузки, а все его части уже остановлены:
+    // недокачанное и журнал выбрасываются, файл заново опрашивается и делится на части
+    private List<Segment> restart(RemoteFile file, AtomicLong downloaded) throws IOException {
+        if (++file.restarts > MAX_RESTARTS) {
+            throw new IOException("Файл на сервере меняется во время загрузки: " + file.task.url);
+        }
+        System.out.println("Файл " + file.task.destination.getName() + " изменился на сервере, загрузка заново");
+        if (file.journal != null) {
+            file.journal.delete();
+        }
+        Files.deleteIfExists(file.part.toPath());
+        downloaded.addAndGet(-file.received.getAndSet(0));
+        RemoteFile fresh = probe(file.task);
+        file.length = fresh.length;
+        file.acceptsRanges = fresh.acceptsRanges;
+        file.etag = fresh.etag;
+        file.alreadyDownloaded = 0;
+        file.changed = false;
+        List<Segment> planned = planSegments(file);
+        file.remainingSegments.set(planned.size());
+        file.activeSegments.set(planned.size());
+        file.received.set(file.alreadyDownloaded);
+        downloaded.addAndGet(file.alreadyDownloaded);
+        if (planned.isEmpty()) {
+            complete(file);
+        }
+        return planned;
+    }
+
+    // Узнаём размер файла и поддержку Range до начала загрузки
+    private RemoteFile probe(DownloadTask task) throws IOException {
+        RemoteFile file = new RemoteFile(task);
+        if (task.size >= 0 && task.size <= SPLIT_THRESHOLD) {
+            // Размер известен, а делить и докачивать мелкий файл незачем – обходимся без HEAD-запроса
+            file.length = task.size;
+            return file;
+        }
+        URLConnection connection = openConnection(task.url);
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection http = (HttpURLConnection) connection;
+            http.setRequestMethod("HEAD");
+            try {
+                int code = http.getResponseCode();
+                if (code == HttpURLConnection.HTTP_OK) {
+                    file.length = http.getContentLengthLong();
+                    file.acceptsRanges = "bytes".equalsIgnoreCase(http.getHeaderField("Accept-Ranges"));
+                    file.etag = http.getHeaderField("ETag");
+                }
+            } catch (IOException ex) {
+                // HEAD не поддерживается – качаем одним запросом без разбиения
+                System.out.println("Не удалось получить размер файла: " + task.url);
+            } finally {
+                http.disconnect();
+            }
+        } else {
+            file.length = connection.getContentLengthLong();
+        }
+        return file;
+    }
+
+    private List<Segment> planSegments(RemoteFile file) throws IOException {
+        File destination = file.task.destination;
+        File parent = destination.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        List<Segment> segments = new ArrayList<>();
+        file.part = new File(destination.getPath() + ".part");
+        File journalFile = new File(destination.getPath() + ".part.journal");
+
+        // Файл уже скачан целиком в прошлый раз – сверяем хеш или ETag с сервером
+        if (destination.isFile() && !file.part.exists() && isDownloaded(file)) {
+            System.out.println("Файл уже скачан: " + destination.getName());
+            file.alreadyDownloaded = file.length;
+            file.complete = true;
+            return segments;
+        }
+
+        boolean resumable = file.length > 0 && file.acceptsRanges;
+        PartJournal journal = resumable ? PartJournal.load(journalFile) : null;
+        if (journal != null && journal.matches(file.etag, file.length)
+                && file.part.exists() && file.part.length() == file.length) {
+            file.alreadyDownloaded = journal.completedBytes();
+            System.out.println("Продолжение загрузки " + destination.getName() + ": уже скачано "
+                    + file.alreadyDownloaded + " из " + file.length + " байт");
+        } else {
+            // Журнала нет или файл на сервере изменился – начинаем с нуля
+            file.part.delete();
+            journalFile.delete();
+            journal = resumable ? new PartJournal(journalFile, file.etag, file.length) : null;
+            try (RandomAccessFile raf = new RandomAccessFile(file.part, "rw")) {
+                // Заранее выделяем место под файл известного размера
+                raf.setLength(Math.max(file.length, 0));
+            }
+        }
+        file.journal = journal;
+
+        if (file.length < 0) {
+            segments.add(new Segment(file, 0, -1));
+            return segments;
+        }
+        int parts = 1;
+        if (file.length > SPLIT_THRESHOLD && file.acceptsRanges) {
+            parts = (int) Math.min(maxConnections, file.length / MIN_SEGMENT_SIZE);
+        }
+        long partSize = Math.max(1, (file.length + parts - 1) / parts);
+        for (long start = 0; start < file.length; start += partSize) {
+            long end = Math.min(start + partSize, file.length) - 1;
+            if (journal == null) {
+                segments.add(new Segment(file, start, end));
+                continue;
+            }
+            for (long[] range : journal.missing(start, end)) {
+                segments.add(new Segment(file, range[0], range[1]));
+            }
+        }
+        if (segments.size() > 1) {
+            System.out.println("Файл " + destination.getName() + " разбит на " + segments.size() + " частей");
+        }
+        return segments;
+    }
+
+    // Одного совпадения размера мало: файл той же длины может быть другой версией
+    private boolean isDownloaded(RemoteFile file) throws IOException {
+        DownloadTask task = file.task;
+        if (file.length >= 0 && task.destination.length() != file.length) {
+            return false;
+        }
+        if (task.sha1 != null) {
+            return task.sha1.equalsIgnoreCase(HashCache.getDefault().sha1(task.destination));
+        }
+        return file.length >= 0 && records.matches(task.destination, task.url, file.etag, file.length);
+    }
+
+    // Качает часть файла, при обрыве повторяет запрос с места остановки
+    private void fetchSegment(Segment segment, AtomicLong downloaded, long total, DownloadListener listener)
+            throws IOException {
+        long position = segment.start;
+        for (int attempt = 1; ; attempt++) {
+            long before = position;
+            try {
+                transfer(segment, position, downloaded, total, listener);
+                return;
+            } catch (RemoteChangedException ex) {
+                throw ex;
+            } catch (IOException ex) {
+                if (segment.file.changed) {
+                    // Обрыв совпал с изменением файла на сервере – эту часть уже не докачиваем
+                    throw new RemoteChangedException(segment.file.task.url);
+                }
+                if (attempt >= MAX_ATTEMPTS || Thread.currentThread().isInterrupted()) {
+                    throw ex;
+                }
+                PartJournal journal = segment.file.journal;
+                if (journal == null) {
+                    // Журнала нет (мелкий файл или сервер без Range) – качаем часть заново
+                    downloaded.addAndGet(-segment.transferred);
+                    segment.file.received.addAndGet(-segment.transferred);
+                    position = segment.start;
+                } else {
+                    List<long[]> missing = journal.missing(segment.start, segment.end);
+                    if (missing.isEmpty()) {
+                        return;
+                    }
+                    position = missing.get(0)[0];
+                }
+                System.out.println("Обрыв загрузки " + segment.file.task.destination.getName() + " ("
+                        + ex.getMessage() + "), повтор с байта " + position);
+                if (position == before) {
+                    sleep(1000L * attempt);
+                }
+            }
+        }
+    }
+
+    private void transfer(Segment segment, long from, AtomicLong downloaded, long total, DownloadListener listener)
+            throws IOException {
+        RemoteFile file = segment.file;
+        segment.transferred = 0;
+        URLConnection connection = openConnection(file.task.url);
+        boolean ranged = segment.end >= 0 && file.acceptsRanges;
+        if (ranged) {
+            connection.setRequestProperty("Range", "bytes=" + from + "-" + segment.end);
+            if (file.etag != null) {
+                // Если файл на сервере изменился, сервер вернёт его целиком, а не часть
+                connection.setRequestProperty("If-Range", file.etag);
+            }
+        }
+        if (ranged && connection instanceof HttpURLConnection) {
+            int code = ((HttpURLConnection) connection).getResponseCode();
+            if (code == HttpURLConnection.HTTP_OK) {
+                // Ответ на If-Range целиком: файл на сервере уже другой, останавливаем все его части
+                file.changed = true;
+                throw new RemoteChangedException(file.task.url);
+            }
+            if (code != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException("Сервер не вернул часть файла (код " + code + "): " + file.task.url);
+            }
+        }
+        try (InputStream in = connection.getInputStream();
+             RandomAccessFile raf = new RandomAccessFile(file.part, "rw")) {
+            FileChannel channel = raf.getChannel();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long position = from;
+            long journaled = from;
+            int bytesRead;
+            try {
+                while ((bytesRead = in.read(buffer)) != -1) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Загрузка отменена");
+                    }
+                    if (file.changed) {
+                        throw new RemoteChangedException(file.task.url);
+                    }
+                    ByteBuffer bb = ByteBuffer.wrap(buffer, 0, bytesRead);
+                    while (bb.hasRemaining()) {
+                        position += channel.write(bb, position);
+                    }
+                    segment.transferred += bytesRead;
+                    file.received.addAndGet(bytesRead);
+                    long done = downloaded.addAndGet(bytesRead);
+                    if (listener != null) {
+                        listener.onProgress(done, total);
+                    }
+                    if (file.journal != null && position - journaled >= JOURNAL_FLUSH_BYTES) {
+                        journal(file, channel, journaled, position);
+                        journaled = position;
+                    }
+                }
+            } finally {
+                // Отмечаем в журнале всё, что успели записать, даже при обрыве
+                if (file.journal != null && position > journaled) {
+                    journal(file, channel, journaled, position);
+                }
+            }
+            if (segment.end < 0) {
+                // Размер мог быть неизвестен заранее – обрезаем по фактически записанному
+                channel.truncate(position);
+            } else if (position != segment.end + 1) {
+                throw new IOException("Часть файла скачана не полностью: " + file.task.url);
+            }
+        }
+    }
+
+    // Данные сначала сбрасываются на диск и только потом попадают в журнал
+    private void journal(RemoteFile file, FileChannel channel, long start, long end) throws IOException {
+        channel.force(false);
+        file.journal.markDone(start, end - 1);
+        file.journal.save();
+    }
+
+    // Проверяем размер и переименовываем *.part в итоговый файл
+    private void complete(RemoteFile file) throws IOException {
+        if (file.complete) {
+            file.task.completion.complete(file.task.destination);
+            return;
+        }
+        if (file.length >= 0 && file.part.length() != file.length) {
+            throw new IOException("Размер файла не совпадает с Content-Length: " + file.task.destination.getName());
+        }
+        Files.move(file.part.toPath(), file.task.destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (file.journal != null) {
+            file.journal.delete();
+        }
+        if (file.task.sha1 == null) {
+            records.record(file.task.destination, file.task.url, file.etag);
+        }
+        file.complete = true;
+        file.task.completion.complete(file.task.destination);
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка прервана", ex);
+        }
+    }
+
+    private URLConnection openConnection(String fileUrl) throws IOException {
+        URLConnection connection;
+        try {
+            connection = URI.create(fileUrl).toURL().openConnection();
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Некорректный адрес: " + fileUrl, ex);
+        }
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        return connection;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка прервана", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // Сведения об удалённом файле, полученные до загрузки
+    private static class RemoteFile {
+        final DownloadTask task;
+        long length = -1;
+        boolean acceptsRanges;
+        String etag;
+        File part;
+        PartJournal journal;
+        long alreadyDownloaded;
+        boolean complete;
+        final AtomicInteger remainingSegments = new AtomicInteger();
+        // Части, которые ещё выполняются (успешно или нет)
+        final AtomicInteger activeSegments = new AtomicInteger();
+        // Байты файла, учтённые в общем прогрессе
+        final AtomicLong received = new AtomicLong();
+        // Файл на сервере изменился: части останавливаются, последняя начинает файл заново
+        volatile boolean changed;
+        int restarts;
+
+        RemoteFile(DownloadTask task) {
+            this.task = task;
+        }
+    }
+
+    // Сервер ответил на If-Range всем файлом: скачанные части относятся к старой версии
+    private static class RemoteChangedException extends IOException {
+        RemoteChangedException(String url) {
+            super("Файл на сервере изменился: " + url);
+        }
+    }
+
+    // Диапазон байт [start, end] одного файла; end = -1 – до конца файла
+    private static class Segment {
+        final RemoteFile file;
+        final long start;
+        final long end;
+        // Сколько байт получено текущей попыткой
+        long transferred;
+
+        Segment(RemoteFile file, long start, long end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
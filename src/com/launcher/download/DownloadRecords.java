@@ -0,0 +1,98 @@
+package com.launcher.download;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Сведения о скачанных файлах (cache/downloads.properties): путь -> размер, время изменения,
+ * ETag и адрес, с которого файл скачан. По ним уже лежащий на диске файл считается скачанным,
+ * только если он не менялся с тех пор, а файл на сервере – тот же самый.
+ */
+class DownloadRecords {
+
+    private static DownloadRecords defaultRecords;
+
+    private final File file;
+    private final Properties records = new Properties();
+    private boolean dirty;
+
+    DownloadRecords(File file) {
+        this.file = file;
+        load();
+    }
+
+    static synchronized DownloadRecords getDefault() {
+        if (defaultRecords == null) {
+            defaultRecords = new DownloadRecords(new File("cache", "downloads.properties"));
+        }
+        return defaultRecords;
+    }
+
+    // Файл скачан с этого адреса, на сервере тот же ETag и размер, и после загрузки файл не трогали
+    synchronized boolean matches(File destination, String url, String etag, long length) {
+        String saved = records.getProperty(key(destination));
+        if (saved == null) {
+            return false;
+        }
+        String[] fields = saved.split("\t", 4);
+        if (fields.length < 4) {
+            return false;
+        }
+        try {
+            return Long.parseLong(fields[0]) == length && destination.length() == length
+                    && Long.parseLong(fields[1]) == destination.lastModified()
+                    && fields[2].equals(etag == null ? "" : etag) && fields[3].equals(url);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    synchronized void record(File destination, String url, String etag) {
+        records.setProperty(key(destination), destination.length() + "\t" + destination.lastModified()
+                + "\t" + (etag == null ? "" : etag) + "\t" + url);
+        dirty = true;
+    }
+
+    // Сохраняет на диск, если что-то менялось; записи об удалённых файлах отбрасываются
+    synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        records.keySet().removeIf(key -> !new File((String) key).exists());
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tmp)) {
+                records.store(fos, "Downloaded files");
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить сведения о загрузках: " + ex.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileInputStream fis = new FileInputStream(file)) {
+            records.load(fis);
+        } catch (IOException | IllegalArgumentException ex) {
+            System.out.println("Сведения о загрузках повреждены, пересоздаём: " + file.getPath());
+            records.clear();
+        }
+    }
+
+    private static String key(File destination) {
+        return destination.toPath().toAbsolutePath().normalize().toString();
+    }
+}
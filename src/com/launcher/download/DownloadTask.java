@@ -0,0 +1,34 @@
+package com.launcher.download;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Описание одного файла для скачивания: откуда и куда.
+ * completion завершается, как только именно этот файл скачан целиком,
+ * поэтому его можно обрабатывать, пока остальные файлы ещё качаются.
+ */
+public class DownloadTask {
+    public final String url;
+    public final File destination;
+    // Размер файла, если известен заранее (например, из индекса ассетов), иначе -1
+    public final long size;
+    // SHA-1 файла, если известен (например, из списка модов сервера), иначе null
+    public final String sha1;
+    public final CompletableFuture<File> completion = new CompletableFuture<>();
+
+    public DownloadTask(String url, File destination) {
+        this(url, destination, -1);
+    }
+
+    public DownloadTask(String url, File destination, long size) {
+        this(url, destination, size, null);
+    }
+
+    public DownloadTask(String url, File destination, long size, String sha1) {
+        this.url = url;
+        this.destination = destination;
+        this.size = size;
+        this.sha1 = sha1;
+    }
+}
@@ -0,0 +1,141 @@
+package com.launcher.download;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Журнал недокачанного файла (*.part.journal рядом с *.part).
+ * Хранит ETag и размер файла на сервере и список уже скачанных диапазонов байт,
+ * чтобы после обрыва связи докачать только недостающее.
+ */
+class PartJournal {
+
+    private final File file;
+    private final String etag;
+    private final long length;
+    // Отсортированные непересекающиеся диапазоны [start, end] включительно
+    private final List<long[]> ranges = new ArrayList<>();
+    // После delete() журнал не сохраняется: поздняя запись другой части не должна вернуть его на диск
+    private boolean deleted;
+
+    PartJournal(File file, String etag, long length) {
+        this.file = file;
+        this.etag = etag;
+        this.length = length;
+    }
+
+    // Загружает журнал с диска; null, если его нет или он повреждён
+    static PartJournal load(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (FileInputStream fis = new FileInputStream(file)) {
+            props.load(fis);
+            PartJournal journal = new PartJournal(file, props.getProperty("etag", ""),
+                    Long.parseLong(props.getProperty("length", "-1")));
+            String saved = props.getProperty("ranges", "");
+            for (String range : saved.split(",")) {
+                if (range.isEmpty()) {
+                    continue;
+                }
+                int dash = range.indexOf('-');
+                journal.markDone(Long.parseLong(range.substring(0, dash)), Long.parseLong(range.substring(dash + 1)));
+            }
+            return journal;
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Журнал загрузки повреждён, начинаем заново: " + file.getName());
+            return null;
+        }
+    }
+
+    // Журнал годится, только если файл на сервере не изменился
+    boolean matches(String remoteEtag, long remoteLength) {
+        return length == remoteLength && etag.equals(remoteEtag == null ? "" : remoteEtag);
+    }
+
+    synchronized void markDone(long start, long end) {
+        if (end < start) {
+            return;
+        }
+        List<long[]> merged = new ArrayList<>();
+        long[] current = {start, end};
+        for (long[] range : ranges) {
+            if (range[1] + 1 < current[0] || current[1] + 1 < range[0]) {
+                merged.add(range);
+            } else {
+                current = new long[]{Math.min(range[0], current[0]), Math.max(range[1], current[1])};
+            }
+        }
+        merged.add(current);
+        merged.sort((a, b) -> Long.compare(a[0], b[0]));
+        ranges.clear();
+        ranges.addAll(merged);
+    }
+
+    // Недостающие диапазоны внутри [start, end]
+    synchronized List<long[]> missing(long start, long end) {
+        List<long[]> result = new ArrayList<>();
+        long position = start;
+        for (long[] range : ranges) {
+            if (range[1] < position) {
+                continue;
+            }
+            if (range[0] > end) {
+                break;
+            }
+            if (range[0] > position) {
+                result.add(new long[]{position, range[0] - 1});
+            }
+            position = Math.max(position, range[1] + 1);
+        }
+        if (position <= end) {
+            result.add(new long[]{position, end});
+        }
+        return result;
+    }
+
+    synchronized long completedBytes() {
+        long total = 0;
+        for (long[] range : ranges) {
+            total += range[1] - range[0] + 1;
+        }
+        return total;
+    }
+
+    // Сохраняем через временный файл, чтобы обрыв записи не испортил журнал
+    synchronized void save() throws IOException {
+        if (deleted) {
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty("etag", etag == null ? "" : etag);
+        props.setProperty("length", Long.toString(length));
+        StringBuilder sb = new StringBuilder();
+        for (long[] range : ranges) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(range[0]).append('-').append(range[1]);
+        }
+        props.setProperty("ranges", sb.toString());
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            props.store(fos, "Download journal");
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    synchronized void delete() {
+        deleted = true;
+        ranges.clear();
+        file.delete();
+    }
+}
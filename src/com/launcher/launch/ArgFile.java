@@ -0,0 +1,43 @@
+package com.launcher.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Файл аргументов JVM (@argfile) с classpath игры: version/<server>/classpath-<loader>.args.
+ * Длинный classpath не передаётся в командной строке (на Windows она ограничена 32 КБ),
+ * а файл переписывается, только если набор библиотек изменился, – его можно сравнивать между запусками.
+ */
+public class ArgFile {
+
+    private final File file;
+
+    public ArgFile(File installDir, String loader) {
+        this.file = new File(installDir, "classpath-" + loader + ".args");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Записывает файл, если содержимое отличается от уже сохранённого; возвращает аргумент "@путь"
+    public String write(List<File> classpath) throws IOException {
+        String content = "-cp\n" + quote(ClasspathResolver.join(classpath)) + "\n";
+        if (!file.isFile() || !content.equals(Files.readString(file.toPath(), StandardCharsets.UTF_8))) {
+            File tmp = new File(file.getPath() + ".tmp");
+            Files.writeString(tmp.toPath(), content, StandardCharsets.UTF_8);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Обновлён файл classpath: " + file.getPath());
+        }
+        return "@" + file.getPath();
+    }
+
+    // В @argfile обратный слеш внутри кавычек – экранирующий символ, поэтому пути пишутся через "/"
+    private static String quote(String value) {
+        return "\"" + value.replace('\\', '/').replace("\"", "\\\"") + "\"";
+    }
+}
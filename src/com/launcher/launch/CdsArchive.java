@@ -0,0 +1,81 @@
+package com.launcher.launch;
+
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Архив классов AppCDS для игры (version/<server>/game.jsa) – режим «быстрый запуск».
+ * При первом запуске JVM сохраняет загруженные классы в архив при выходе (-XX:ArchiveClassesAtExit),
+ * при следующих – подключает его (-XX:SharedArchiveFile) и не разбирает эти классы заново.
+ * Архив привязан к classpath: отпечаток хранится рядом в game.jsa.fingerprint,
+ * при изменении набора библиотек архив пересоздаётся.
+ */
+public class CdsArchive {
+
+    private final File archive;
+    private final File fingerprintFile;
+
+    public CdsArchive(File installDir) {
+        this.archive = new File(installDir, "game.jsa");
+        this.fingerprintFile = new File(installDir, "game.jsa.fingerprint");
+    }
+
+    // Аргументы JVM для запуска с данным classpath
+    public List<String> jvmArgs(List<File> classpath) throws IOException {
+        List<String> args = new ArrayList<>();
+        // С папками в classpath JVM не может создать архив и не запускается вовсе
+        for (File file : classpath) {
+            if (!file.isFile()) {
+                System.out.println("Быстрый запуск недоступен, в classpath не jar-файл: " + file.getPath());
+                return args;
+            }
+        }
+        String fingerprint = fingerprint(classpath);
+        if (archive.isFile() && fingerprint.equals(readFingerprint())) {
+            System.out.println("Быстрый запуск: используется архив классов " + archive.getPath());
+            args.add("-XX:SharedArchiveFile=" + archive.getPath());
+        } else {
+            // Архива нет или classpath изменился – создаём заново при выходе из игры
+            archive.delete();
+            Files.writeString(fingerprintFile.toPath(), fingerprint, StandardCharsets.UTF_8);
+            System.out.println("Быстрый запуск: архив классов будет создан при выходе из игры");
+            args.add("-XX:ArchiveClassesAtExit=" + archive.getPath());
+        }
+        return args;
+    }
+
+    private String readFingerprint() {
+        if (!fingerprintFile.isFile()) {
+            return null;
+        }
+        try {
+            return Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8).trim();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    // Пути, размеры и даты изменения jar-файлов classpath; несовпадение версии JVM
+    // проверяет сама JVM и в этом случае просто запускается без архива
+    private static String fingerprint(List<File> classpath) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        for (File file : classpath) {
+            String entry = file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified() + "\n";
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+        return HashCache.toHex(digest.digest());
+    }
+}
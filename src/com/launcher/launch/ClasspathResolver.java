@@ -0,0 +1,282 @@
+package com.launcher.launch;
+
+import com.launcher.launch.LibraryManifest.Library;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Сборка classpath игры по списку библиотек (LibraryManifest).
+ * Берутся только библиотеки нужного загрузчика, нативные jar – только для текущих ОС и архитектуры,
+ * из нескольких версий одного артефакта берётся та, что закреплена версией загрузчика сервера,
+ * а для незакреплённых – самая новая из тех, что есть на диске.
+ * Пути разделяются File.pathSeparator, поэтому classpath годится и для Windows, и для Linux/macOS.
+ */
+public class ClasspathResolver {
+
+    public static final String LOADER_FORGE = "forge";
+    public static final String LOADER_FABRIC = "fabric";
+
+    private static final String NATIVES_PREFIX = "natives-";
+    private static final String FABRIC_LOADER = "net.fabricmc:fabric-loader";
+    private static final String FORGE_GROUP = "net.minecraftforge";
+    private static final String FORGE = FORGE_GROUP + ":forge";
+    private static final String SHIM_LIST = "bootstrap-shim.list";
+
+    private final File libDir;
+    private final String os;
+    private final String arch;
+
+    public ClasspathResolver(File libDir) {
+        this(libDir, currentOs(), currentArch());
+    }
+
+    public ClasspathResolver(File libDir, String os, String arch) {
+        this.libDir = libDir;
+        this.os = os;
+        this.arch = arch;
+    }
+
+    // Jar-файлы библиотек в порядке манифеста, по одному на group:artifact:classifier.
+    // loaderVersion – версия загрузчика из servers.json (fabric_version / forge_version): артефакты,
+    // которые эта версия загрузчика закрепляет, берутся строго этой версии, остальные – самые новые
+    public List<File> resolve(LibraryManifest manifest, String loader, String loaderVersion) {
+        Map<String, String> pins = loaderPins(loader, loaderVersion);
+        Map<String, List<Artifact>> candidates = new LinkedHashMap<>();
+        for (Library library : manifest.libraries) {
+            if (library.loader != null && !library.loader.isEmpty() && !library.loader.equalsIgnoreCase(loader)) {
+                continue;
+            }
+            Artifact artifact = Artifact.parse(library.name);
+            if (artifact == null) {
+                System.out.println("Некорректное имя библиотеки: " + library.name);
+                continue;
+            }
+            if (artifact.classifier != null && artifact.classifier.startsWith(NATIVES_PREFIX)
+                    && !matchesPlatform(artifact.classifier)) {
+                continue;
+            }
+            File file = artifact.file(libDir);
+            if (!file.isFile()) {
+                System.out.println("Библиотека не найдена, пропускаем: " + file.getPath());
+                continue;
+            }
+            candidates.computeIfAbsent(artifact.key(), k -> new ArrayList<>()).add(artifact);
+        }
+        List<File> files = new ArrayList<>(candidates.size());
+        for (List<Artifact> versions : candidates.values()) {
+            Artifact artifact = choose(versions, pins, loaderVersion);
+            if (artifact != null) {
+                files.add(artifact.file(libDir));
+            }
+        }
+        return files;
+    }
+
+    // Закреплённая загрузчиком версия; если загрузчик её не задаёт – самая новая
+    private static Artifact choose(List<Artifact> versions, Map<String, String> pins, String loaderVersion) {
+        Artifact first = versions.get(0);
+        String pinned = pins.get(first.group + ":" + first.name);
+        Artifact newest = null;
+        for (Artifact artifact : versions) {
+            if (pinned != null ? artifact.version.equals(pinned)
+                    : matchesLoaderVersion(artifact.version, loaderVersion)) {
+                return artifact;
+            }
+            if (newest == null || compareVersions(artifact.version, newest.version) > 0) {
+                newest = artifact;
+            }
+        }
+        if (pinned != null && isLoaderArtifact(first)) {
+            // Jar другой версии загрузчика в classpath не кладём – игра с ним всё равно не запустится
+            System.out.println("Нет библиотеки " + first.key() + ":" + pinned + " для этой версии загрузчика");
+            return null;
+        }
+        // Сторонней библиотеки нужной версии нет – подойдёт самая новая из имеющихся
+        return newest;
+    }
+
+    // Собственные артефакты загрузчика: с чужой версией их брать нельзя
+    private static boolean isLoaderArtifact(Artifact artifact) {
+        return artifact.group.equals(FORGE_GROUP) || (artifact.group + ":" + artifact.name).equals(FABRIC_LOADER);
+    }
+
+    // group:artifact -> версия, которую требует загрузчик.
+    // Fabric закрепляет только fabric-loader. Forge перечисляет свои библиотеки в bootstrap-shim.list
+    // внутри forge-<версия>-shim.jar – это точный список для данной версии
+    Map<String, String> loaderPins(String loader, String loaderVersion) {
+        Map<String, String> pins = new HashMap<>();
+        if (loaderVersion == null || loaderVersion.trim().isEmpty()) {
+            return pins;
+        }
+        loaderVersion = loaderVersion.trim();
+        if (LOADER_FABRIC.equalsIgnoreCase(loader)) {
+            pins.put(FABRIC_LOADER, loaderVersion);
+            return pins;
+        }
+        File forgeDir = new File(libDir, FORGE.replace('.', '/').replace(':', '/'));
+        String[] installed = forgeDir.list();
+        if (installed == null) {
+            return pins;
+        }
+        for (String version : installed) {
+            if (!matchesLoaderVersion(version, loaderVersion)) {
+                continue;
+            }
+            pins.put(FORGE, version);
+            File shim = new File(forgeDir, version + "/forge-" + version + "-shim.jar");
+            if (shim.isFile()) {
+                readShimList(shim, pins);
+            }
+            break;
+        }
+        return pins;
+    }
+
+    // Строки bootstrap-shim.list: sha256<TAB>group:artifact:version[:classifier]<TAB>путь
+    private static void readShimList(File shim, Map<String, String> pins) {
+        try (ZipFile zip = new ZipFile(shim)) {
+            ZipEntry entry = zip.getEntry(SHIM_LIST);
+            if (entry == null) {
+                return;
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] columns = line.split("\t");
+                    Artifact artifact = columns.length >= 2 ? Artifact.parse(columns[1]) : null;
+                    if (artifact != null) {
+                        pins.put(artifact.group + ":" + artifact.name, artifact.version);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать список библиотек Forge из " + shim.getPath() + ": " + ex.getMessage());
+        }
+    }
+
+    // "54.1.0" в servers.json соответствует артефактам версии "1.21.4-54.1.0"
+    static boolean matchesLoaderVersion(String version, String loaderVersion) {
+        if (loaderVersion == null || loaderVersion.trim().isEmpty()) {
+            return false;
+        }
+        String wanted = loaderVersion.trim();
+        return version.equals(wanted) || version.endsWith("-" + wanted) || wanted.endsWith("-" + version);
+    }
+
+    // Строка для -cp
+    public static String join(List<File> files) {
+        StringBuilder sb = new StringBuilder();
+        for (File file : files) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparator);
+            }
+            sb.append(file.getPath());
+        }
+        return sb.toString();
+    }
+
+    // natives-<os>[-<arch>], без архитектуры – x86_64
+    private boolean matchesPlatform(String classifier) {
+        String platform = classifier.substring(NATIVES_PREFIX.length());
+        int dash = platform.indexOf('-');
+        String nativesOs = dash < 0 ? platform : platform.substring(0, dash);
+        String nativesArch = dash < 0 ? "x86_64" : platform.substring(dash + 1);
+        if ("osx".equals(nativesOs)) {
+            nativesOs = "macos";
+        }
+        return nativesOs.equals(os) && nativesArch.equals(arch);
+    }
+
+    public static String currentOs() {
+        String name = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        if (name.startsWith("windows")) {
+            return "windows";
+        }
+        if (name.startsWith("mac")) {
+            return "macos";
+        }
+        return "linux";
+    }
+
+    public static String currentArch() {
+        String name = System.getProperty("os.arch", "").toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "amd64":
+            case "x86_64":
+                return "x86_64";
+            case "aarch64":
+            case "arm64":
+                return "arm64";
+            case "x86":
+            case "i386":
+            case "i686":
+                return "x86";
+            default:
+                return name;
+        }
+    }
+
+    // Сравнение версий по частям: числовые части – как числа, остальные – как строки
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("[.\\-+_]");
+        String[] right = b.split("[.\\-+_]");
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int cmp;
+            if (left[i].matches("\\d+") && right[i].matches("\\d+")) {
+                cmp = Long.compare(Long.parseLong(left[i]), Long.parseLong(right[i]));
+            } else {
+                cmp = left[i].compareTo(right[i]);
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    private static class Artifact {
+        String group;
+        String name;
+        String version;
+        String classifier;
+
+        static Artifact parse(String coordinates) {
+            if (coordinates == null) {
+                return null;
+            }
+            String[] parts = coordinates.split(":");
+            if (parts.length < 3 || parts.length > 4) {
+                return null;
+            }
+            Artifact artifact = new Artifact();
+            artifact.group = parts[0];
+            artifact.name = parts[1];
+            artifact.version = parts[2];
+            artifact.classifier = parts.length == 4 ? parts[3] : null;
+            return artifact;
+        }
+
+        String key() {
+            return group + ":" + name + (classifier != null ? ":" + classifier : "");
+        }
+
+        // lib/<group через />/<artifact>/<version>/<artifact>-<version>[-<classifier>].jar
+        File file(File libDir) {
+            String fileName = name + "-" + version + (classifier != null ? "-" + classifier : "") + ".jar";
+            return new File(libDir, group.replace('.', '/') + "/" + name + "/" + version + "/" + fileName);
+        }
+    }
+}
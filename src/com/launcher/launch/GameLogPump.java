@@ -0,0 +1,241 @@
+package com.launcher.launch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сбор вывода игры (stdout и stderr, объединённые через redirectErrorStream).
+ * Поток чтения только разбирает строки и никогда не ждёт диск: строки попадают в кольцевой буфер
+ * для просмотра в лаунчере и в ограниченную очередь, которую отдельный поток пишет в сжатые
+ * файлы version/<server>/logs/console-*.log.gz с ротацией по размеру. Если очередь переполнена,
+ * строки пропускаются (с отметкой в журнале), чтобы игра не остановилась на заполненном канале.
+ *
+ * События log4j (обычный шаблон "[HH:mm:ss] [поток/УРОВЕНЬ]:" и XML-события конфигурации
+ * assets/log_configs/client-*.xml) игра сама пишет в logs/latest.log, поэтому на диск они
+ * не дублируются, а только показываются в буфере.
+ */
+public class GameLogPump {
+
+    public static final int DEFAULT_CAPACITY = 5000;
+
+    private static final int QUEUE_CAPACITY = 10000;
+    // Размер несжатого текста в одном файле и число хранимых файлов
+    private static final long ROTATE_BYTES = 16L * 1024 * 1024;
+    private static final int KEEP_FILES = 10;
+    private static final String FILE_PREFIX = "console-";
+    private static final String FILE_SUFFIX = ".log.gz";
+
+    // Forge добавляет после уровня ещё группу [логгер/маркер]: "[12:00:00] [Render thread/INFO] [minecraft/Minecraft]: ..."
+    private static final Pattern LOG4J_LINE =
+            Pattern.compile("^\\[\\d{2}:\\d{2}:\\d{2}] \\[[^\\]]+/[A-Z]+](?: \\[[^\\]]+])?: .*");
+    // Больше строк в одном XML-событии не бывает: незакрытое событие выводится как обычный текст
+    private static final int MAX_EVENT_LINES = 200;
+    private static final Pattern XML_ATTRIBUTE = Pattern.compile("(timestamp|level|thread)=\"([^\"]*)\"");
+    private static final Pattern XML_MESSAGE = Pattern.compile("<!\\[CDATA\\[(.*?)]]>", Pattern.DOTALL);
+
+    private final File logsDir;
+    private final String[] ring;
+    // Номер следующей строки буфера (всего строк за сеанс)
+    private long nextLine;
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean finished;
+
+    public GameLogPump(File installDir, int capacity) {
+        this.logsDir = new File(installDir, "logs");
+        this.ring = new String[capacity];
+    }
+
+    // Запускает потоки чтения и записи; процесс должен быть запущен с redirectErrorStream(true)
+    public void attach(Process process) {
+        Thread reader = new Thread(() -> read(process.getInputStream()), "game-log-reader");
+        reader.setDaemon(true);
+        reader.start();
+        Thread writer = new Thread(this::writeLoop, "game-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Строки буфера с номером from и дальше (более старые уже вытеснены); возвращает номер следующей строки
+    public synchronized long linesSince(long from, List<String> out) {
+        long start = Math.max(from, nextLine - ring.length);
+        for (long i = start; i < nextLine; i++) {
+            out.add(ring[(int) (i % ring.length)]);
+        }
+        return nextLine;
+    }
+
+    private synchronized void addToRing(String line) {
+        ring[(int) (nextLine % ring.length)] = line;
+        nextLine++;
+    }
+
+    private void read(InputStream in) {
+        // Вывод игры, перенаправленный в канал, идёт в системной кодировке
+        Charset charset;
+        try {
+            charset = Charset.forName(System.getProperty("native.encoding", Charset.defaultCharset().name()));
+        } catch (RuntimeException ex) {
+            charset = Charset.defaultCharset();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))) {
+            List<String> xmlEvent = null;
+            String line;
+            try {
+                while ((line = reader.readLine()) != null) {
+                    if (xmlEvent == null && line.startsWith("<log4j:Event")) {
+                        xmlEvent = new ArrayList<>();
+                    }
+                    if (xmlEvent != null) {
+                        xmlEvent.add(line);
+                        if (line.contains("</log4j:Event>")) {
+                            addToRing(formatXmlEvent(String.join("\n", xmlEvent)));
+                            xmlEvent = null;
+                        } else if (xmlEvent.size() >= MAX_EVENT_LINES) {
+                            // Конец события так и не пришёл (обрезанный вывод) – не копим его бесконечно
+                            xmlEvent.forEach(this::addPlain);
+                            xmlEvent = null;
+                        }
+                        continue;
+                    }
+                    addPlain(line);
+                }
+            } finally {
+                // Процесс завершился посреди события – оставшиеся строки не теряем
+                if (xmlEvent != null) {
+                    xmlEvent.forEach(this::addPlain);
+                }
+            }
+        } catch (IOException ex) {
+            // Процесс завершился
+        } finally {
+            finished = true;
+        }
+    }
+
+    // Обычная строка: в буфер, а в файл – если её не пишет сама игра через log4j
+    private void addPlain(String line) {
+        addToRing(line);
+        if (!LOG4J_LINE.matcher(line).matches() && !queue.offer(line)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // <log4j:Event logger="..." timestamp="..." level="INFO" thread="Render thread"><log4j:Message><![CDATA[...]]>...
+    private static String formatXmlEvent(String xml) {
+        String time = "";
+        String level = "";
+        String thread = "";
+        Matcher attributes = XML_ATTRIBUTE.matcher(xml);
+        while (attributes.find()) {
+            switch (attributes.group(1)) {
+                case "timestamp":
+                    try {
+                        time = new SimpleDateFormat("HH:mm:ss").format(new Date(Long.parseLong(attributes.group(2))));
+                    } catch (NumberFormatException ex) {
+                        time = attributes.group(2);
+                    }
+                    break;
+                case "level":
+                    level = attributes.group(2);
+                    break;
+                default:
+                    thread = attributes.group(2);
+                    break;
+            }
+        }
+        Matcher message = XML_MESSAGE.matcher(xml);
+        String text = message.find() ? message.group(1) : xml.trim();
+        return "[" + time + "] [" + thread + "/" + level + "]: " + text;
+    }
+
+    private void writeLoop() {
+        Writer out = null;
+        long written = 0;
+        try {
+            while (!finished || !queue.isEmpty()) {
+                String line = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    if (out != null) {
+                        out.flush();
+                    }
+                    continue;
+                }
+                if (out == null || written >= ROTATE_BYTES) {
+                    if (out != null) {
+                        out.close();
+                    }
+                    out = openNextFile();
+                    written = 0;
+                }
+                long skipped = dropped.getAndSet(0);
+                if (skipped > 0) {
+                    String note = "[лаунчер] пропущено строк вывода: " + skipped + "\n";
+                    out.write(note);
+                    written += note.length();
+                }
+                out.write(line);
+                out.write('\n');
+                written += line.length() + 1;
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось записать журнал игры: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private Writer openNextFile() throws IOException {
+        logsDir.mkdirs();
+        deleteOldFiles();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        File file = new File(logsDir, FILE_PREFIX + stamp + FILE_SUFFIX);
+        // syncFlush – flush() дописывает сжатый блок, и файл читается даже без закрытия
+        return new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file), 64 * 1024, true), StandardCharsets.UTF_8));
+    }
+
+    // Оставляем место для нового файла в пределах KEEP_FILES
+    private void deleteOldFiles() {
+        File[] files = logsDir.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length < KEEP_FILES) {
+            return;
+        }
+        List<File> sorted = new ArrayList<>(Arrays.asList(files));
+        // Имена содержат время создания – сортировка по имени совпадает с хронологической
+        sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i <= sorted.size() - KEEP_FILES; i++) {
+            sorted.get(i).delete();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.launcher.launch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Наблюдение за процессом игры: загрузка CPU, занятая память (RSS) и паузы сборщика мусора.
+ * CPU берётся из ProcessHandle, RSS – из /proc (Linux) или tasklist (Windows),
+ * паузы GC – из журнала, который JVM игры пишет по аргументу gcLogArg().
+ * После выхода игры итоги сеанса сохраняются в version/<server>/logs/session-*.txt.
+ */
+public class GameSupervisor {
+
+    private static final long SAMPLE_INTERVAL_MS = 2000;
+
+    private final Process process;
+    private final File logsDir;
+    private final File gcLog;
+    private final long startTime = System.currentTimeMillis();
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    private final boolean windows = ClasspathResolver.currentOs().equals("windows");
+
+    private ScheduledExecutorService sampler;
+    private long gcLogPosition;
+    private long lastCpuNanos;
+    private long lastSampleTime = startTime;
+
+    // Итоги сеанса; пишутся только потоком замеров
+    private long samples;
+    private double cpuSum;
+    private long peakRssMb;
+    private long gcPauses;
+    private double gcPauseTotalMs;
+    private double gcPauseMaxMs;
+
+    // Текущие показатели игры
+    public static class Sample {
+        public double cpuPercent;
+        // -1, если узнать не удалось
+        public long rssMb = -1;
+        public long gcPauses;
+        public double gcPauseTotalMs;
+        public double gcPauseMaxMs;
+        public long uptimeSeconds;
+    }
+
+    public GameSupervisor(Process process, File installDir) {
+        this.process = process;
+        this.logsDir = new File(installDir, "logs");
+        this.gcLog = gcLogFile(installDir);
+    }
+
+    public static File gcLogFile(File installDir) {
+        return new File(new File(installDir, "logs"), "gc.log");
+    }
+
+    // Аргумент JVM игры: журнал сборщика мусора (паузы G1/Parallel – тег gc, паузы ZGC – gc+phases)
+    public static String gcLogArg(File installDir) {
+        File file = gcLogFile(installDir);
+        file.getParentFile().mkdirs();
+        file.delete();
+        // Путь в кавычках: в нём могут быть пробелы и двоеточие диска. filecount=0 – без ротации:
+        // по умолчанию JVM после 20 МБ начинает файл заново, и дочитывание с прежней позиции остановилось бы
+        return "-Xlog:gc,gc+phases:file=\"" + file.getPath().replace('\\', '/') + "\":uptime:filecount=0";
+    }
+
+    // Запускает замеры; listener вызывается из фонового потока при каждом замере
+    public void start(Consumer<Sample> listener) {
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-supervisor");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                Sample sample = sample();
+                if (listener != null) {
+                    listener.accept(sample);
+                }
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Ждёт выхода игры, останавливает замеры и сохраняет итоги сеанса; возвращает код выхода
+    public int waitFor() throws InterruptedException {
+        int exitCode = process.waitFor();
+        if (sampler != null) {
+            sampler.shutdown();
+            sampler.awaitTermination(SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        readGcLog();
+        writeSummary(exitCode);
+        return exitCode;
+    }
+
+    private Sample sample() {
+        long now = System.currentTimeMillis();
+        Sample sample = new Sample();
+        long cpuNanos = process.toHandle().info().totalCpuDuration().map(Duration::toNanos).orElse(-1L);
+        if (cpuNanos >= 0 && now > lastSampleTime) {
+            double cpu = (cpuNanos - lastCpuNanos) / 1e6 / (now - lastSampleTime) / cores * 100;
+            sample.cpuPercent = Math.max(0, Math.min(100, cpu));
+            lastCpuNanos = cpuNanos;
+        }
+        lastSampleTime = now;
+        sample.rssMb = readRssMb();
+        readGcLog();
+
+        samples++;
+        cpuSum += sample.cpuPercent;
+        peakRssMb = Math.max(peakRssMb, sample.rssMb);
+        sample.gcPauses = gcPauses;
+        sample.gcPauseTotalMs = gcPauseTotalMs;
+        sample.gcPauseMaxMs = gcPauseMaxMs;
+        sample.uptimeSeconds = (now - startTime) / 1000;
+        return sample;
+    }
+
+    private long readRssMb() {
+        long pid = process.pid();
+        try {
+            if (windows) {
+                // "javaw.exe","1234","Console","1","1 234 567 K"
+                Process tasklist = new ProcessBuilder("tasklist", "/FI", "PID eq " + pid, "/FO", "CSV", "/NH")
+                        .redirectErrorStream(true).start();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(tasklist.getInputStream()))) {
+                    String line = reader.readLine();
+                    if (line != null) {
+                        String[] columns = line.split("\",\"");
+                        if (columns.length >= 5) {
+                            String digits = columns[4].replaceAll("\\D", "");
+                            return digits.isEmpty() ? -1 : Long.parseLong(digits) / 1024;
+                        }
+                    }
+                }
+            } else {
+                File status = new File("/proc/" + pid + "/status");
+                if (status.isFile()) {
+                    for (String line : Files.readAllLines(status.toPath())) {
+                        if (line.startsWith("VmRSS:")) {
+                            return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                        }
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // Процесс мог уже завершиться
+        }
+        return -1;
+    }
+
+    // Дочитывает новые строки журнала GC; вида "[12.345s] GC(7) Pause Young (Normal) ... 3.456ms"
+    private void readGcLog() {
+        if (!gcLog.isFile()) {
+            return;
+        }
+        if (gcLog.length() < gcLogPosition) {
+            // Файл начат заново – читаем с начала
+            gcLogPosition = 0;
+        }
+        if (gcLog.length() == gcLogPosition) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(gcLog, "r")) {
+            raf.seek(gcLogPosition);
+            byte[] data = new byte[(int) (raf.length() - gcLogPosition)];
+            raf.readFully(data);
+            String text = new String(data, StandardCharsets.UTF_8);
+            // Незаконченную строку разберём в следующий раз
+            int end = text.lastIndexOf('\n');
+            if (end < 0) {
+                return;
+            }
+            gcLogPosition += text.substring(0, end + 1).getBytes(StandardCharsets.UTF_8).length;
+            for (String line : text.substring(0, end).split("\n")) {
+                parseGcLine(line.trim());
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать журнал GC: " + ex.getMessage());
+        }
+    }
+
+    private void parseGcLine(String line) {
+        if (!line.contains(" Pause ") || !line.endsWith("ms")) {
+            return;
+        }
+        int start = line.lastIndexOf(' ') + 1;
+        try {
+            double pauseMs = Double.parseDouble(line.substring(start, line.length() - 2).replace(',', '.'));
+            gcPauses++;
+            gcPauseTotalMs += pauseMs;
+            gcPauseMaxMs = Math.max(gcPauseMaxMs, pauseMs);
+        } catch (NumberFormatException ex) {
+            // Строка другого формата
+        }
+    }
+
+    private void writeSummary(int exitCode) {
+        logsDir.mkdirs();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startTime));
+        File summary = new File(logsDir, "session-" + stamp + ".txt");
+        long seconds = (System.currentTimeMillis() - startTime) / 1000;
+        try (PrintWriter out = new PrintWriter(summary, StandardCharsets.UTF_8)) {
+            out.println("Начало: " + new Date(startTime));
+            out.println("Длительность: " + seconds + " с");
+            out.println("Код выхода: " + exitCode);
+            out.println(String.format(Locale.ROOT, "Средняя загрузка CPU: %.1f%%", samples == 0 ? 0 : cpuSum / samples));
+            out.println("Пиковая память (RSS): " + (peakRssMb > 0 ? peakRssMb + " МБ" : "нет данных"));
+            out.println("Пауз GC: " + gcPauses);
+            out.println(String.format(Locale.ROOT, "Суммарная пауза GC: %.1f мс", gcPauseTotalMs));
+            out.println(String.format(Locale.ROOT, "Максимальная пауза GC: %.2f мс", gcPauseMaxMs));
+            out.println(String.format(Locale.ROOT, "Средняя пауза GC: %.2f мс", gcPauses == 0 ? 0 : gcPauseTotalMs / gcPauses));
+            System.out.println("Итоги сеанса сохранены: " + summary.getPath());
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить итоги сеанса: " + ex.getMessage());
+        }
+    }
+}
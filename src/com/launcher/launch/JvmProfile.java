@@ -0,0 +1,156 @@
+package com.launcher.launch;
+
+import com.launcher.ServerConfig;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Профили настроек JVM игры: сборщик мусора, начальный размер кучи, предзагрузка памяти.
+ * Аргументы рассчитываются из заданного в настройках размера кучи, объёма памяти
+ * и числа ядер компьютера. Сервер может указать свой профиль и дополнительные аргументы
+ * (ServerConfig.jvm_profile, ServerConfig.jvm_args).
+ * Сведения о компьютере читаются только в jvmArgs(heapMb) и forServer(); сам расчёт –
+ * чистая функция от кучи, памяти, числа ядер и ОС.
+ */
+public enum JvmProfile {
+
+    AUTO("Автоматически"),
+    LOW_LATENCY("Низкие задержки (G1)"),
+    ZGC("Низкие задержки (ZGC)"),
+    THROUGHPUT("Производительность"),
+    LOW_MEMORY("Мало памяти"),
+    NONE("Без настроек");
+
+    // Память, которую оставляем системе и нативной памяти игры (текстуры, звук, библиотеки)
+    private static final long RESERVED_MB = 2048;
+    private static final long MIN_HEAP_MB = 1024;
+
+    public final String title;
+
+    JvmProfile(String title) {
+        this.title = title;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+
+    // Профиль по имени из settings.txt или servers.json; неизвестное или пустое имя – AUTO
+    public static JvmProfile fromName(String name) {
+        if (name != null) {
+            for (JvmProfile profile : values()) {
+                if (profile.name().equalsIgnoreCase(name.trim())) {
+                    return profile;
+                }
+            }
+        }
+        return AUTO;
+    }
+
+    // Аргументы JVM сервера на текущем компьютере: профиль сервера, если задан, иначе defaultProfile
+    // из настроек лаунчера, затем дополнительные аргументы сервера
+    public static List<String> forServer(ServerConfig server, String defaultProfile, long heapMb) {
+        String profileName = server.jvm_profile != null && !server.jvm_profile.isEmpty()
+                ? server.jvm_profile : defaultProfile;
+        List<String> args = fromName(profileName).jvmArgs(heapMb);
+        if (server.jvm_args != null) {
+            args.addAll(server.jvm_args);
+        }
+        return args;
+    }
+
+    // Аргументы JVM для кучи heapMb на текущем компьютере
+    public List<String> jvmArgs(long heapMb) {
+        long totalMb = -1;
+        long freeMb = -1;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            com.sun.management.OperatingSystemMXBean sun = (com.sun.management.OperatingSystemMXBean) os;
+            totalMb = sun.getTotalMemorySize() / (1024 * 1024);
+            freeMb = sun.getFreeMemorySize() / (1024 * 1024);
+        }
+        return jvmArgs(heapMb, totalMb, freeMb, Runtime.getRuntime().availableProcessors(),
+                ClasspathResolver.currentOs());
+    }
+
+    // totalMb/freeMb = -1, если объём памяти определить не удалось; os – как в ClasspathResolver.currentOs()
+    List<String> jvmArgs(long heapMb, long totalMb, long freeMb, int cores, String os) {
+        if (totalMb > 0 && heapMb > totalMb - RESERVED_MB) {
+            long clamped = Math.max(MIN_HEAP_MB, totalMb - RESERVED_MB);
+            System.out.println("Куча " + heapMb + " МБ не помещается в память компьютера (" + totalMb
+                    + " МБ), уменьшаем до " + clamped + " МБ");
+            heapMb = clamped;
+        }
+        JvmProfile profile = this == AUTO ? choose(heapMb, totalMb, cores) : this;
+        List<String> args = new ArrayList<>();
+        args.add("-Xmx" + heapMb + "M");
+        // Предзагрузка всей кучи при старте имеет смысл, только если её хватает без подкачки
+        boolean preTouch = freeMb > 0 && freeMb > heapMb + RESERVED_MB / 2;
+        switch (profile) {
+            case LOW_LATENCY:
+                args.add("-Xms" + heapMb + "M");
+                args.add("-XX:+UseG1GC");
+                args.add("-XX:MaxGCPauseMillis=50");
+                args.add("-XX:+UnlockExperimentalVMOptions");
+                args.add("-XX:G1NewSizePercent=30");
+                args.add("-XX:G1MaxNewSizePercent=40");
+                args.add("-XX:G1HeapRegionSize=" + (heapMb >= 12 * 1024 ? "16M" : "8M"));
+                args.add("-XX:G1ReservePercent=20");
+                args.add("-XX:InitiatingHeapOccupancyPercent=15");
+                args.add("-XX:+ParallelRefProcEnabled");
+                args.add("-XX:ConcGCThreads=" + Math.max(1, cores / 4));
+                args.add("-XX:+DisableExplicitGC");
+                addPreTouch(args, preTouch, os);
+                break;
+            case ZGC:
+                args.add("-Xms" + heapMb + "M");
+                args.add("-XX:+UseZGC");
+                args.add("-XX:+ZGenerational");
+                args.add("-XX:+DisableExplicitGC");
+                addPreTouch(args, preTouch, os);
+                break;
+            case THROUGHPUT:
+                args.add("-Xms" + Math.max(MIN_HEAP_MB, heapMb / 2) + "M");
+                args.add("-XX:+UseParallelGC");
+                args.add("-XX:ParallelGCThreads=" + Math.max(1, cores - 1));
+                break;
+            case LOW_MEMORY:
+                args.add("-Xms" + Math.min(heapMb, MIN_HEAP_MB / 2) + "M");
+                args.add(cores <= 2 ? "-XX:+UseSerialGC" : "-XX:+UseG1GC");
+                args.add("-XX:+UseStringDeduplication");
+                // Отдаём неиспользуемую кучу системе
+                args.add("-XX:MinHeapFreeRatio=10");
+                args.add("-XX:MaxHeapFreeRatio=30");
+                break;
+            default:
+                break;
+        }
+        return args;
+    }
+
+    // AUTO: ZGC для больших куч на многоядерных машинах, G1 с короткими паузами в остальных случаях,
+    // экономный режим – если памяти мало
+    private static JvmProfile choose(long heapMb, long totalMb, int cores) {
+        if ((totalMb > 0 && totalMb < 6 * 1024) || cores <= 2) {
+            return LOW_MEMORY;
+        }
+        if (cores >= 8 && heapMb >= 8 * 1024) {
+            return ZGC;
+        }
+        return LOW_LATENCY;
+    }
+
+    private static void addPreTouch(List<String> args, boolean preTouch, String os) {
+        if (preTouch) {
+            args.add("-XX:+AlwaysPreTouch");
+        }
+        // Прозрачные большие страницы уменьшают промахи TLB; на других ОС флаг не нужен
+        if (os.equals("linux")) {
+            args.add("-XX:+UseTransparentHugePages");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.launcher.launch;
+
+import com.launcher.ConfigJson;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Список библиотек игры (libraries.json).
+ * Общий файл лежит в корне лаунчера, сервер может переопределить его своим
+ * version/<server>/libraries.json. Каждая запись – maven-координаты
+ * group:artifact:version[:classifier]; файл ищется в lib/ по стандартной раскладке maven.
+ */
+public class LibraryManifest {
+
+    public static final String FILE_NAME = "libraries.json";
+
+    public List<Library> libraries;
+
+    public static class Library {
+        // group:artifact:version[:classifier]
+        public String name;
+        // forge / fabric – библиотека нужна только этому загрузчику; пусто – нужна всем
+        public String loader;
+    }
+
+    // Манифест сервера, если он есть, иначе общий
+    public static LibraryManifest load(File installDir) throws IOException {
+        File manifestFile = new File(installDir, FILE_NAME);
+        if (!manifestFile.isFile()) {
+            manifestFile = new File(FILE_NAME);
+        }
+        try (Reader reader = new FileReader(manifestFile, StandardCharsets.UTF_8)) {
+            LibraryManifest manifest = ConfigJson.GSON.fromJson(reader, LibraryManifest.class);
+            if (manifest == null || manifest.libraries == null) {
+                throw new IOException("Пустой список библиотек: " + manifestFile.getPath());
+            }
+            return manifest;
+        } catch (RuntimeException ex) {
+            throw new IOException("Не удалось прочитать список библиотек: " + manifestFile.getPath(), ex);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.launcher.mods;
+
+import com.launcher.ServerConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Проверка включённых модов перед запуском игры: недостающие зависимости, неподходящие версии
+ * Minecraft и загрузчика, моды другого загрузчика, несовместимые моды и дубликаты id.
+ * Работает по индексу модов (ModIndex), поэтому занимает миллисекунды, а не полную загрузку игры.
+ */
+public class ModDependencyResolver {
+
+    // Зависимости, которые проверить нельзя или не нужно
+    private static final Set<String> IGNORED = Set.of("java", "javafml", "lowcodefml", "mcp");
+
+    private final ServerConfig server;
+    private final String loader;
+
+    // Найденная проблема; error – игра почти наверняка не запустится
+    public static class Problem {
+        public final boolean error;
+        public final String message;
+
+        Problem(boolean error, String message) {
+            this.error = error;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    public ModDependencyResolver(ServerConfig server) {
+        this.server = server;
+        this.loader = server.fabric_version != null && !server.fabric_version.trim().isEmpty()
+                ? ModInfo.LOADER_FABRIC : ModInfo.LOADER_FORGE;
+    }
+
+    public List<Problem> check(List<ModInfo> mods) {
+        List<Problem> problems = new ArrayList<>();
+        // Что есть в игре: сама игра, загрузчик и все моды с их дополнительными id
+        Map<String, String> available = new HashMap<>();
+        available.put("minecraft", server.minecraft_version);
+        if (ModInfo.LOADER_FABRIC.equals(loader)) {
+            available.put("fabricloader", server.fabric_version);
+        } else {
+            // NeoForge – отдельный загрузчик: forge_version его зависимость не удовлетворяет
+            available.put("forge", server.forge_version);
+        }
+        boolean bundled = false;
+        for (ModInfo mod : mods) {
+            if (!mod.isMod()) {
+                continue;
+            }
+            available.put(mod.id, mod.version);
+            for (String id : mod.provides) {
+                available.putIfAbsent(id, mod.version);
+            }
+            bundled |= mod.bundlesJars;
+        }
+
+        for (Map.Entry<String, List<ModInfo>> dup : ModIndex.duplicates(mods).entrySet()) {
+            List<String> files = new ArrayList<>();
+            for (ModInfo mod : dup.getValue()) {
+                files.add(mod.fileName);
+            }
+            problems.add(new Problem(true, "Мод " + dup.getKey() + " установлен несколько раз: "
+                    + String.join(", ", files)));
+        }
+
+        for (ModInfo mod : mods) {
+            if (!mod.isMod()) {
+                continue;
+            }
+            if (!mod.loader.equals(loader)) {
+                problems.add(new Problem(true, mod.displayName() + " (" + mod.fileName + ") – мод для "
+                        + loaderName(mod.loader) + ", а сервер на " + loaderName(loader)));
+                continue;
+            }
+            boolean maven = ModInfo.LOADER_FORGE.equals(mod.loader);
+            for (Map.Entry<String, String> dep : mod.depends.entrySet()) {
+                String id = dep.getKey();
+                String range = dep.getValue();
+                if (IGNORED.contains(id)) {
+                    continue;
+                }
+                String version = available.get(id);
+                if (version == null && id.equals("neoforge")) {
+                    problems.add(new Problem(true, mod.displayName() + " (" + mod.fileName
+                            + ") – мод для NeoForge, а сервер на Forge"));
+                } else if (version == null) {
+                    // Зависимость может лежать внутри другого мода (jar-in-jar) – тогда это только предупреждение
+                    problems.add(new Problem(!bundled, mod.displayName() + " требует " + id
+                            + describeRange(range) + ", но такого мода нет"));
+                } else if (!VersionRange.matches(range, version, maven)) {
+                    problems.add(new Problem(true, mod.displayName() + " требует " + id
+                            + describeRange(range) + ", а установлена версия " + version));
+                }
+            }
+            for (Map.Entry<String, String> conflict : mod.breaks.entrySet()) {
+                String version = available.get(conflict.getKey());
+                if (version != null && VersionRange.matches(conflict.getValue(), version, maven)) {
+                    problems.add(new Problem(true, mod.displayName() + " несовместим с "
+                            + conflict.getKey() + " " + version));
+                }
+            }
+        }
+        return problems;
+    }
+
+    public static boolean hasErrors(List<Problem> problems) {
+        for (Problem problem : problems) {
+            if (problem.error) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describeRange(String range) {
+        return range == null || range.isEmpty() || range.equals("*") ? "" : " (" + range + ")";
+    }
+
+    private static String loaderName(String loader) {
+        return ModInfo.LOADER_FABRIC.equals(loader) ? "Fabric" : "Forge";
+    }
+}
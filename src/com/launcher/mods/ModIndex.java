@@ -0,0 +1,435 @@
+package com.launcher.mods;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Индекс модов: id, имя, версия и зависимости каждого jar.
+ * Из jar читается только центральный каталог и один файл описания (fabric.mod.json или
+ * META-INF/mods.toml), сам мод не распаковывается. Результат кешируется в cache/mods.bin
+ * по пути, размеру и времени изменения файла, поэтому повторный просмотр папки – это только
+ * чтение атрибутов файлов; заново разбираются лишь новые и изменённые jar.
+ */
+public class ModIndex {
+
+    private static final int MAGIC = 0x514D4D49; // "QMMI"
+    // 3: зависимости только для сервера (side = "SERVER") больше не попадают в индекс
+    private static final int VERSION = 3;
+
+    private static final String FABRIC_JSON = "fabric.mod.json";
+    private static final String FORGE_TOML = "META-INF/mods.toml";
+    private static final String NEOFORGE_TOML = "META-INF/neoforge.mods.toml";
+    private static final String FORGE_JARJAR = "META-INF/jarjar/metadata.json";
+
+    private static ModIndex defaultIndex;
+
+    private final File file;
+    // Читается без блокировки; изменения и сохранение идут под lock, чтобы save() писал согласованный снимок
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private boolean dirty;
+
+    private static class Entry {
+        final long size;
+        final long modified;
+        final ModInfo info;
+
+        Entry(long size, long modified, ModInfo info) {
+            this.size = size;
+            this.modified = modified;
+            this.info = info;
+        }
+    }
+
+    public ModIndex(File file) {
+        this.file = file;
+        load();
+    }
+
+    // Общий индекс лаунчера
+    public static synchronized ModIndex getDefault() {
+        if (defaultIndex == null) {
+            defaultIndex = new ModIndex(new File("cache", "mods.bin"));
+        }
+        return defaultIndex;
+    }
+
+    // Все jar папки (без вложенных папок) в порядке имён
+    public List<ModInfo> scan(File dir) {
+        List<ModInfo> mods = new ArrayList<>();
+        File[] jars = dir.listFiles((d, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+        if (jars == null) {
+            return mods;
+        }
+        Arrays.sort(jars);
+        for (File jar : jars) {
+            ModInfo info = get(jar);
+            if (info != null) {
+                mods.add(info);
+            }
+        }
+        return mods;
+    }
+
+    // Сведения об одном jar; null, если файл не читается
+    public ModInfo get(File jar) {
+        String key = jar.toPath().toAbsolutePath().normalize().toString();
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+        } catch (IOException ex) {
+            synchronized (lock) {
+                entries.remove(key);
+            }
+            return null;
+        }
+        if (!attrs.isRegularFile()) {
+            return null;
+        }
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.size != size || entry.modified != modified) {
+            ModInfo info;
+            try {
+                info = read(jar);
+            } catch (IOException | RuntimeException ex) {
+                System.out.println("Не удалось прочитать мод " + jar.getName() + ": " + ex.getMessage());
+                info = new ModInfo();
+            }
+            entry = new Entry(size, modified, info);
+            synchronized (lock) {
+                entries.put(key, entry);
+                dirty = true;
+            }
+        }
+        // Имя файла не кешируем: тот же jar мог быть переименован или перенесён в disabled
+        ModInfo info = copy(entry.info);
+        info.fileName = jar.getName();
+        return info;
+    }
+
+    // Моды с одинаковым id в списке: id -> файлы
+    public static Map<String, List<ModInfo>> duplicates(List<ModInfo> mods) {
+        Map<String, List<ModInfo>> byId = new LinkedHashMap<>();
+        for (ModInfo mod : mods) {
+            if (mod.isMod()) {
+                byId.computeIfAbsent(mod.id, k -> new ArrayList<>()).add(mod);
+            }
+        }
+        byId.values().removeIf(list -> list.size() < 2);
+        return byId;
+    }
+
+    static ModInfo read(File jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar)) {
+            ZipEntry fabric = zip.getEntry(FABRIC_JSON);
+            if (fabric != null) {
+                try (Reader reader = new InputStreamReader(zip.getInputStream(fabric), StandardCharsets.UTF_8)) {
+                    return parseFabric(reader);
+                }
+            }
+            ZipEntry toml = zip.getEntry(FORGE_TOML);
+            if (toml == null) {
+                toml = zip.getEntry(NEOFORGE_TOML);
+            }
+            if (toml != null) {
+                ModInfo info;
+                try (InputStream in = zip.getInputStream(toml)) {
+                    info = parseModsToml(in);
+                }
+                // version = "${file.jarVersion}" – версия из манифеста jar
+                if (info.version.startsWith("${")) {
+                    ZipEntry manifest = zip.getEntry("META-INF/MANIFEST.MF");
+                    String version = null;
+                    if (manifest != null) {
+                        try (InputStream in = zip.getInputStream(manifest)) {
+                            version = new Manifest(in).getMainAttributes().getValue("Implementation-Version");
+                        }
+                    }
+                    info.version = version != null ? version : "";
+                }
+                info.bundlesJars = zip.getEntry(FORGE_JARJAR) != null;
+                return info;
+            }
+        }
+        return new ModInfo();
+    }
+
+    static ModInfo parseFabric(Reader reader) {
+        JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+        ModInfo info = new ModInfo();
+        info.loader = ModInfo.LOADER_FABRIC;
+        info.id = string(json, "id");
+        info.name = string(json, "name");
+        info.version = string(json, "version");
+        readRanges(json, "depends", info.depends);
+        readRanges(json, "breaks", info.breaks);
+        if (json.has("provides") && json.get("provides").isJsonArray()) {
+            for (JsonElement element : json.getAsJsonArray("provides")) {
+                info.provides.add(element.getAsString());
+            }
+        }
+        info.bundlesJars = json.has("jars") && json.get("jars").isJsonArray()
+                && json.getAsJsonArray("jars").size() > 0;
+        return info;
+    }
+
+    // "depends": {"id": "range"} или {"id": ["range", "range"]} – массив означает любой из диапазонов
+    private static void readRanges(JsonObject json, String key, Map<String, String> out) {
+        if (!json.has(key) || !json.get(key).isJsonObject()) {
+            return;
+        }
+        for (Map.Entry<String, JsonElement> dep : json.getAsJsonObject(key).entrySet()) {
+            JsonElement value = dep.getValue();
+            String range;
+            if (value.isJsonArray()) {
+                List<String> ranges = new ArrayList<>();
+                for (JsonElement element : value.getAsJsonArray()) {
+                    ranges.add(element.getAsString());
+                }
+                range = String.join(" || ", ranges);
+            } else {
+                range = value.isJsonPrimitive() ? value.getAsString() : "*";
+            }
+            out.put(dep.getKey(), range);
+        }
+    }
+
+    private static String string(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : "";
+    }
+
+    // Разбор только нужной части TOML: первая таблица [[mods]] и обязательные [[dependencies.*]]
+    static ModInfo parseModsToml(InputStream in) throws IOException {
+        ModInfo info = new ModInfo();
+        info.loader = ModInfo.LOADER_FORGE;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String section = "";
+        int modTables = 0;
+        Map<String, String> dependency = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[")) {
+                addDependency(info, dependency);
+                dependency = null;
+                section = line.replaceAll("[\\[\\]\\s]", "");
+                if (section.equals("mods")) {
+                    modTables++;
+                } else if (section.startsWith("dependencies.")) {
+                    dependency = new LinkedHashMap<>();
+                }
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = line.substring(0, eq).trim();
+            String value = line.substring(eq + 1).trim();
+            // Многострочная строка (обычно description) – пропускаем до закрывающих кавычек
+            if (value.startsWith("'''") || value.startsWith("\"\"\"")) {
+                String quotes = value.substring(0, 3);
+                String rest = value.substring(3);
+                while (rest != null && !rest.contains(quotes)) {
+                    rest = reader.readLine();
+                }
+                continue;
+            }
+            value = tomlValue(value);
+            if (section.equals("mods") && modTables == 1) {
+                switch (key) {
+                    case "modId":
+                        info.id = value;
+                        break;
+                    case "version":
+                        info.version = value;
+                        break;
+                    case "displayName":
+                        info.name = value;
+                        break;
+                    default:
+                        break;
+                }
+            } else if (dependency != null) {
+                dependency.put(key, value);
+            }
+        }
+        addDependency(info, dependency);
+        return info;
+    }
+
+    // Forge: mandatory=true; NeoForge: type="required". Зависимости с side = "SERVER" клиенту не нужны
+    private static void addDependency(ModInfo info, Map<String, String> dependency) {
+        if (dependency == null || !dependency.containsKey("modId")) {
+            return;
+        }
+        if ("SERVER".equalsIgnoreCase(dependency.getOrDefault("side", "BOTH"))) {
+            return;
+        }
+        boolean required = "true".equals(dependency.get("mandatory"))
+                || "required".equalsIgnoreCase(dependency.getOrDefault("type", ""));
+        if (required) {
+            info.depends.put(dependency.get("modId"), dependency.getOrDefault("versionRange", "*"));
+        }
+    }
+
+    // "строка" или 'строка' без кавычек и комментария в конце строки; true/false и числа как есть
+    private static String tomlValue(String value) {
+        if (value.startsWith("\"") || value.startsWith("'")) {
+            char quote = value.charAt(0);
+            int end = value.indexOf(quote, 1);
+            return end > 0 ? value.substring(1, end) : value.substring(1);
+        }
+        int comment = value.indexOf('#');
+        return (comment >= 0 ? value.substring(0, comment) : value).trim();
+    }
+
+    private static ModInfo copy(ModInfo source) {
+        ModInfo info = new ModInfo();
+        info.id = source.id;
+        info.name = source.name;
+        info.version = source.version;
+        info.loader = source.loader;
+        info.depends = new LinkedHashMap<>(source.depends);
+        info.breaks = new LinkedHashMap<>(source.breaks);
+        info.provides = new ArrayList<>(source.provides);
+        info.bundlesJars = source.bundlesJars;
+        return info;
+    }
+
+    // Сохраняет индекс, если он менялся; записи об удалённых файлах отбрасываются
+    public void save() {
+        synchronized (lock) {
+            if (dirty) {
+                dirty = false;
+                entries.keySet().removeIf(key -> !new File(key).exists());
+                write(new LinkedHashMap<>(entries));
+            }
+        }
+    }
+
+    private void write(Map<String, Entry> snapshot) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                Entry entry = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.writeUTF(entry.info.id);
+                out.writeUTF(entry.info.name);
+                out.writeUTF(entry.info.version);
+                out.writeUTF(entry.info.loader);
+                writeMap(out, entry.info.depends);
+                writeMap(out, entry.info.breaks);
+                out.writeInt(entry.info.provides.size());
+                for (String id : entry.info.provides) {
+                    out.writeUTF(id);
+                }
+                out.writeBoolean(entry.info.bundlesJars);
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить индекс модов: " + ex.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить индекс модов: " + ex.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.out.println("Индекс модов другого формата, пересоздаём: " + file.getPath());
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                ModInfo info = new ModInfo();
+                info.id = in.readUTF();
+                info.name = in.readUTF();
+                info.version = in.readUTF();
+                info.loader = in.readUTF();
+                readMap(in, info.depends);
+                readMap(in, info.breaks);
+                int provides = in.readInt();
+                for (int p = 0; p < provides; p++) {
+                    info.provides.add(in.readUTF());
+                }
+                info.bundlesJars = in.readBoolean();
+                entries.put(key, new Entry(size, modified, info));
+            }
+        } catch (EOFException ex) {
+            System.out.println("Индекс модов повреждён, пересоздаём: " + file.getPath());
+            entries.clear();
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать индекс модов: " + ex.getMessage());
+            entries.clear();
+        }
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeUTF(e.getValue());
+        }
+    }
+
+    private static void readMap(DataInputStream in, Map<String, String> map) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+    }
+}
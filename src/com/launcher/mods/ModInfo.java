@@ -0,0 +1,41 @@
+package com.launcher.mods;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сведения о моде из его jar: fabric.mod.json или META-INF/mods.toml (Forge/NeoForge).
+ * Если в jar нет ни того, ни другого, id пустой, а имя – имя файла.
+ */
+public class ModInfo {
+
+    public static final String LOADER_FABRIC = "fabric";
+    public static final String LOADER_FORGE = "forge";
+
+    public String fileName;
+    public String id = "";
+    public String name = "";
+    public String version = "";
+    // fabric / forge; пусто – не мод (или неизвестный формат)
+    public String loader = "";
+    // Обязательные зависимости: id мода -> диапазон версий (пусто или "*" – любая)
+    public Map<String, String> depends = new LinkedHashMap<>();
+    // Несовместимые моды (fabric: breaks): id мода -> диапазон версий
+    public Map<String, String> breaks = new LinkedHashMap<>();
+    // Дополнительные id, под которыми мод известен (fabric: provides)
+    public List<String> provides = new ArrayList<>();
+    // В jar вложены другие моды (jar-in-jar), их id по центральному каталогу не узнать
+    public boolean bundlesJars;
+
+    public boolean isMod() {
+        return !id.isEmpty();
+    }
+
+    // Имя для списка модов: "Sodium 0.6.0"
+    public String displayName() {
+        String title = name.isEmpty() ? (id.isEmpty() ? fileName : id) : name;
+        return version.isEmpty() ? title : title + " " + version;
+    }
+}
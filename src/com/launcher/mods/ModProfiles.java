@@ -0,0 +1,201 @@
+package com.launcher.mods;
+
+import com.launcher.util.ContentStore;
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Именованные наборы модов сервера ("performance", "full", "PvP").
+ * Профиль – файл version/<server>/profiles/<имя>.profile: имя jar -> sha1 в общем хранилище (ContentStore).
+ * Моды профиля хранятся в хранилище, а в mods ставятся жёсткими ссылками, поэтому переключение
+ * профиля – это удаление и создание ссылок только для отличающихся модов, без копирования файлов.
+ * Перед переключением текущие моды сохраняются в активный профиль, так что переключение обратимо.
+ */
+public class ModProfiles {
+
+    public static final String DEFAULT_PROFILE = "default";
+
+    private static final String PROFILES_DIR = "profiles";
+    private static final String PROFILE_SUFFIX = ".profile";
+    private static final String STATE_FILE = "active.properties";
+
+    private final File modsDir;
+    private final File profilesDir;
+    private final ContentStore store;
+    private final HashCache hashCache;
+
+    public ModProfiles(File installDir, ContentStore store, HashCache hashCache) {
+        this.modsDir = new File(installDir, "mods");
+        this.profilesDir = new File(installDir, PROFILES_DIR);
+        this.store = store;
+        this.hashCache = hashCache;
+    }
+
+    public static boolean isValidName(String name) {
+        return name != null && name.matches("[\\p{L}\\p{N} _.-]{1,40}") && !name.startsWith(".");
+    }
+
+    public List<String> list() {
+        List<String> names = new ArrayList<>();
+        String[] files = profilesDir.list((dir, name) -> name.endsWith(PROFILE_SUFFIX));
+        if (files != null) {
+            for (String file : files) {
+                names.add(file.substring(0, file.length() - PROFILE_SUFFIX.length()));
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    // Активный профиль или null, если профили ещё не использовались
+    public String active() {
+        return loadProperties(new File(profilesDir, STATE_FILE)).getProperty("active");
+    }
+
+    // Сохраняет включённые моды под именем name и делает профиль активным
+    public void save(String name) throws IOException {
+        if (!isValidName(name)) {
+            throw new IOException("Недопустимое имя профиля: " + name);
+        }
+        Properties manifest = new Properties();
+        manifest.putAll(snapshot());
+        storeProperties(manifest, profileFile(name), "mod file -> sha1");
+        setActive(name);
+    }
+
+    // Переключает mods на профиль name; текущие моды перед этим сохраняются в активный профиль
+    public void activate(String name) throws IOException {
+        File file = profileFile(name);
+        if (!file.isFile()) {
+            throw new IOException("Профиль не найден: " + name);
+        }
+        Map<String, String> current = snapshot();
+        String active = active();
+        Properties saved = new Properties();
+        saved.putAll(current);
+        storeProperties(saved, profileFile(active != null ? active : DEFAULT_PROFILE), "mod file -> sha1");
+
+        Properties wanted = loadProperties(file);
+        // Сначала проверяем, что всё нужное есть в хранилище, и только потом трогаем mods
+        for (String jarName : wanted.stringPropertyNames()) {
+            if (!store.contains(wanted.getProperty(jarName))) {
+                throw new IOException("В хранилище нет мода " + jarName + " из профиля " + name);
+            }
+        }
+        int changed = 0;
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!entry.getValue().equals(wanted.getProperty(entry.getKey()))) {
+                File jar = new File(modsDir, entry.getKey());
+                Files.deleteIfExists(jar.toPath());
+                hashCache.forget(jar);
+                changed++;
+            }
+        }
+        for (String jarName : wanted.stringPropertyNames()) {
+            String sha1 = wanted.getProperty(jarName);
+            if (!sha1.equals(current.get(jarName))) {
+                if (!store.materialize(sha1, new File(modsDir, jarName))) {
+                    throw new IOException("В хранилище нет мода " + jarName);
+                }
+                changed++;
+            }
+        }
+        hashCache.save();
+        setActive(name);
+        System.out.println("Профиль модов " + name + " активирован, изменено файлов: " + changed);
+    }
+
+    public void delete(String name) throws IOException {
+        Files.deleteIfExists(profileFile(name).toPath());
+        if (name.equals(active())) {
+            Files.deleteIfExists(new File(profilesDir, STATE_FILE).toPath());
+        }
+    }
+
+    // Хеши модов из профилей всех серверов – для сборки мусора в хранилище
+    public static Set<String> referencedBlobs(File versionDir) {
+        Set<String> blobs = new HashSet<>();
+        File[] instances = versionDir.listFiles(File::isDirectory);
+        if (instances == null) {
+            return blobs;
+        }
+        for (File instance : instances) {
+            File[] profiles = new File(instance, PROFILES_DIR)
+                    .listFiles((dir, name) -> name.endsWith(PROFILE_SUFFIX));
+            if (profiles == null) {
+                continue;
+            }
+            for (File profile : profiles) {
+                Properties manifest = loadProperties(profile);
+                for (String jarName : manifest.stringPropertyNames()) {
+                    blobs.add(manifest.getProperty(jarName));
+                }
+            }
+        }
+        return blobs;
+    }
+
+    // Включённые моды (имя -> sha1); новые моды переносятся в хранилище, чтобы их можно было вернуть.
+    // Мод, который уже ссылается на хранилище, не трогаем: хеш берётся из HashCache без чтения файла
+    private Map<String, String> snapshot() throws IOException {
+        Map<String, String> mods = new TreeMap<>();
+        File[] jars = modsDir.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+        if (jars != null) {
+            for (File jar : jars) {
+                if (!jar.isFile()) {
+                    continue;
+                }
+                String sha1 = hashCache.sha1(jar);
+                File blob = store.blob(sha1);
+                if (!blob.isFile() || !Files.isSameFile(jar.toPath(), blob.toPath())) {
+                    sha1 = store.adopt(jar, null);
+                }
+                mods.put(jar.getName(), sha1);
+            }
+        }
+        return mods;
+    }
+
+    private File profileFile(String name) {
+        return new File(profilesDir, name + PROFILE_SUFFIX);
+    }
+
+    private void setActive(String name) throws IOException {
+        Properties state = new Properties();
+        state.setProperty("active", name);
+        storeProperties(state, new File(profilesDir, STATE_FILE), "active mod profile");
+    }
+
+    private static Properties loadProperties(File file) {
+        Properties properties = new Properties();
+        if (file.isFile()) {
+            try (FileInputStream fis = new FileInputStream(file)) {
+                properties.load(fis);
+            } catch (IOException ex) {
+                System.out.println("Не удалось прочитать " + file.getPath() + ": " + ex.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private static void storeProperties(Properties properties, File file, String comment) throws IOException {
+        file.getParentFile().mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            properties.store(fos, comment);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.launcher.mods;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Включение и отключение модов одним пакетом: включённые моды лежат в mods, отключённые – в mods/disabled.
+ * Желаемое состояние сравнивается с текущим, и переносятся только изменившиеся файлы (Files.move
+ * с ATOMIC_MOVE). Перед переносом план записывается в mods/.apply.journal; если лаунчер упал
+ * посреди пакета, при следующем применении план доводится до конца. Ошибки собираются по файлам.
+ */
+public class ModStateEngine {
+
+    private static final String DISABLED_DIR = "disabled";
+    private static final String JOURNAL_FILE = ".apply.journal";
+    private static final String ENABLE = "enable";
+    private static final String DISABLE = "disable";
+
+    private final File modsDir;
+    private final File disabledDir;
+    private final File journalFile;
+
+    // Мод, который не удалось перенести
+    public static class Failure {
+        public final String fileName;
+        public final String message;
+
+        Failure(String fileName, String message) {
+            this.fileName = fileName;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return fileName + ": " + message;
+        }
+    }
+
+    public static class Result {
+        public int moved;
+        public final List<Failure> failures = new ArrayList<>();
+    }
+
+    public ModStateEngine(File modsDir) {
+        this.modsDir = modsDir;
+        this.disabledDir = new File(modsDir, DISABLED_DIR);
+        this.journalFile = new File(modsDir, JOURNAL_FILE);
+    }
+
+    // desired: имя файла мода -> должен ли он быть включён; моды, которых нет на диске, пропускаются
+    public Result apply(Map<String, Boolean> desired) {
+        Result result = new Result();
+        recover(result);
+        Set<String> enabled = list(modsDir);
+        Set<String> disabled = list(disabledDir);
+        Map<String, String> plan = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> entry : desired.entrySet()) {
+            String name = entry.getKey();
+            if (entry.getValue() && disabled.contains(name) && !enabled.contains(name)) {
+                plan.put(name, ENABLE);
+            } else if (!entry.getValue() && enabled.contains(name) && !disabled.contains(name)) {
+                plan.put(name, DISABLE);
+            }
+        }
+        if (plan.isEmpty()) {
+            return result;
+        }
+        try {
+            if (plan.containsValue(DISABLE)) {
+                Files.createDirectories(disabledDir.toPath());
+            }
+            writeJournal(plan);
+        } catch (IOException ex) {
+            for (String name : plan.keySet()) {
+                result.failures.add(new Failure(name, "не удалось записать журнал: " + ex.getMessage()));
+            }
+            return result;
+        }
+        run(plan, result);
+        journalFile.delete();
+        System.out.println("Моды: перенесено " + result.moved + ", ошибок " + result.failures.size());
+        return result;
+    }
+
+    // Доводит до конца пакет, прерванный падением лаунчера
+    private void recover(Result result) {
+        if (!journalFile.isFile()) {
+            return;
+        }
+        Map<String, String> plan = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(journalFile.toPath(), StandardCharsets.UTF_8)) {
+                int space = line.indexOf(' ');
+                if (space > 0) {
+                    plan.put(line.substring(space + 1), line.substring(0, space));
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать журнал модов: " + ex.getMessage());
+        }
+        System.out.println("Завершение прерванного переноса модов: " + plan.size());
+        run(plan, result);
+        journalFile.delete();
+    }
+
+    private void run(Map<String, String> plan, Result result) {
+        for (Map.Entry<String, String> op : plan.entrySet()) {
+            String name = op.getKey();
+            boolean enable = ENABLE.equals(op.getValue());
+            Path source = new File(enable ? disabledDir : modsDir, name).toPath();
+            Path target = new File(enable ? modsDir : disabledDir, name).toPath();
+            if (!Files.exists(source)) {
+                // Уже перенесён (восстановление после сбоя) или удалён
+                continue;
+            }
+            if (Files.exists(target)) {
+                result.failures.add(new Failure(name, "файл уже есть в " + target.getParent().getFileName()));
+                continue;
+            }
+            try {
+                try {
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(source, target);
+                }
+                result.moved++;
+            } catch (IOException ex) {
+                // Обычно файл занят другим процессом (запущенной игрой или антивирусом)
+                result.failures.add(new Failure(name, ex.getMessage()));
+            }
+        }
+    }
+
+    private void writeJournal(Map<String, String> plan) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(journalFile);
+             Writer out = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> op : plan.entrySet()) {
+                out.write(op.getValue() + " " + op.getKey() + "\n");
+            }
+            out.flush();
+            // План должен оказаться на диске раньше первого переноса
+            fos.getFD().sync();
+        }
+    }
+
+    private static Set<String> list(File dir) {
+        Set<String> names = new HashSet<>();
+        String[] files = dir.list((d, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+        if (files != null) {
+            for (String name : files) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
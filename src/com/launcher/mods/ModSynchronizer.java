@@ -0,0 +1,203 @@
+package com.launcher.mods;
+
+import com.launcher.ModConfig;
+import com.launcher.ServerConfig;
+import com.launcher.download.DownloadListener;
+import com.launcher.download.DownloadManager;
+import com.launcher.download.DownloadTask;
+import com.launcher.util.ContentStore;
+import com.launcher.util.HashCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Синхронизация модов сервера (ServerConfig.mods) с папкой version/<server>/mods.
+ * Недостающие и изменившиеся моды берутся из общего хранилища (ContentStore), если они уже
+ * есть у другого сервера, иначе качаются параллельно и сверяются с sha1 из списка серверов.
+ * Имена модов, поставленных лаунчером, и адреса, с которых они взяты, хранятся в mods/.managed:
+ * мод, который сервер убрал из списка, удаляется, а моды игрока не трогаются. Мод без sha1
+ * скачивается заново, если у него сменился адрес. Если сервер не разрешает свои моды
+ * (allow_custom_mods = false), чужие моды переносятся в mods/disabled, а не удаляются.
+ */
+public class ModSynchronizer {
+
+    public static final String MANAGED_FILE = ".managed";
+    private static final String DISABLED_DIR = "disabled";
+
+    private final File modsDir;
+    private final File disabledDir;
+    private final File managedFile;
+    private final HashCache hashCache;
+    private final ContentStore store;
+
+    // Итоги синхронизации
+    public static class Result {
+        public final List<String> downloaded = new ArrayList<>();
+        // Взяты из хранилища без скачивания
+        public final List<String> linked = new ArrayList<>();
+        public final List<String> removed = new ArrayList<>();
+        public final List<String> disabled = new ArrayList<>();
+    }
+
+    public ModSynchronizer(File installDir, HashCache hashCache, ContentStore store) {
+        this.modsDir = new File(installDir, "mods");
+        this.disabledDir = new File(modsDir, DISABLED_DIR);
+        this.managedFile = new File(modsDir, MANAGED_FILE);
+        this.hashCache = hashCache;
+        this.store = store;
+    }
+
+    // Есть ли что синхронизировать: моды в списке сервера или поставленные раньше
+    public boolean needed(ServerConfig cfg) {
+        return (cfg.mods != null && !cfg.mods.isEmpty()) || managedFile.isFile();
+    }
+
+    public Result sync(ServerConfig cfg, DownloadListener listener) throws IOException {
+        Result result = new Result();
+        Map<String, ModConfig> wanted = new LinkedHashMap<>();
+        if (cfg.mods != null) {
+            for (ModConfig mod : cfg.mods) {
+                wanted.put(fileName(mod), mod);
+            }
+        }
+        modsDir.mkdirs();
+        Map<String, String> managed = readManaged();
+
+        // Что нужно скачать: файла нет или хеш не совпадает; отключённый игроком мод остаётся отключённым
+        List<DownloadTask> tasks = new ArrayList<>();
+        Map<File, ModConfig> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, ModConfig> entry : wanted.entrySet()) {
+            ModConfig mod = entry.getValue();
+            File disabledFile = new File(disabledDir, entry.getKey());
+            String installedUrl = managed.get(entry.getKey());
+            if (disabledFile.isFile() && matches(disabledFile, mod, installedUrl)) {
+                continue;
+            }
+            disabledFile.delete();
+            File modFile = new File(modsDir, entry.getKey());
+            if (modFile.isFile() && matches(modFile, mod, installedUrl)) {
+                continue;
+            }
+            // Тот же мод уже скачан для другого сервера
+            String stored = mod.sha1 != null ? mod.sha1 : store.sha1ForUrl(mod.url);
+            if (stored != null && store.materialize(stored, modFile)) {
+                result.linked.add(modFile.getName());
+                continue;
+            }
+            hashCache.forget(modFile);
+            tasks.add(new DownloadTask(mod.url, modFile, -1, mod.sha1));
+            pending.put(modFile, mod);
+        }
+        if (!tasks.isEmpty()) {
+            System.out.println("Скачивание модов сервера: " + tasks.size());
+            new DownloadManager().downloadAll(tasks, listener);
+        }
+        for (Map.Entry<File, ModConfig> entry : pending.entrySet()) {
+            File modFile = entry.getKey();
+            if (!matches(modFile, entry.getValue(), entry.getValue().url)) {
+                modFile.delete();
+                hashCache.forget(modFile);
+                throw new IOException("Контрольная сумма мода не совпадает: " + modFile.getName());
+            }
+            store.adopt(modFile, entry.getValue().url);
+            result.downloaded.add(modFile.getName());
+        }
+
+        // Моды, которые сервер раньше ставил, а теперь убрал из списка
+        for (String name : managed.keySet()) {
+            if (!wanted.containsKey(name)) {
+                boolean deleted = new File(modsDir, name).delete();
+                deleted |= new File(disabledDir, name).delete();
+                if (deleted) {
+                    result.removed.add(name);
+                }
+            }
+        }
+        if (!cfg.allow_custom_mods) {
+            File[] files = modsDir.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+            if (files != null) {
+                for (File f : files) {
+                    if (!wanted.containsKey(f.getName())) {
+                        disabledDir.mkdirs();
+                        Files.move(f.toPath(), new File(disabledDir, f.getName()).toPath(),
+                                StandardCopyOption.REPLACE_EXISTING);
+                        result.disabled.add(f.getName());
+                    }
+                }
+            }
+        }
+        writeManaged(wanted);
+        hashCache.save();
+        System.out.println("Моды синхронизированы: скачано " + result.downloaded.size()
+                + ", из хранилища " + result.linked.size() + ", удалено " + result.removed.size()
+                + ", отключено " + result.disabled.size());
+        return result;
+    }
+
+    // Без sha1 в списке сервера мод сверяется по адресу, с которого он был скачан (installedUrl)
+    private boolean matches(File file, ModConfig mod, String installedUrl) throws IOException {
+        if (mod.sha1 == null) {
+            return mod.url.equals(installedUrl);
+        }
+        return mod.sha1.equalsIgnoreCase(hashCache.sha1(file));
+    }
+
+    // Имя файла мода – последний сегмент адреса; если он не похож на jar – имя мода
+    public static String fileName(ModConfig mod) {
+        String name = null;
+        try {
+            String path = new URI(mod.url).getPath();
+            if (path != null) {
+                name = path.substring(path.lastIndexOf('/') + 1);
+            }
+        } catch (URISyntaxException ex) {
+            // Адрес с пробелами и т.п. – берём имя мода
+        }
+        if (name == null || !name.toLowerCase(Locale.ROOT).endsWith(".jar")) {
+            name = mod.name + ".jar";
+        }
+        return name.replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+    // Имя файла -> адрес; строки "имя<TAB>адрес", в файлах старого формата адреса нет (null)
+    private Map<String, String> readManaged() throws IOException {
+        Map<String, String> mods = new LinkedHashMap<>();
+        if (managedFile.isFile()) {
+            for (String line : Files.readAllLines(managedFile.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    mods.put(line.trim(), null);
+                } else {
+                    mods.put(line.substring(0, tab).trim(), line.substring(tab + 1).trim());
+                }
+            }
+        }
+        return mods;
+    }
+
+    private void writeManaged(Map<String, ModConfig> mods) throws IOException {
+        if (mods.isEmpty()) {
+            managedFile.delete();
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, ModConfig> entry : mods.entrySet()) {
+            lines.add(entry.getKey() + "\t" + entry.getValue().url);
+        }
+        Files.write(managedFile.toPath(), lines, StandardCharsets.UTF_8);
+    }
+}
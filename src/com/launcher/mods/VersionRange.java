@@ -0,0 +1,204 @@
+package com.launcher.mods;
+
+/**
+ * Проверка версии по диапазону из описания мода.
+ * Fabric: "*", "1.21.4", "1.21.x", ">=0.15 <0.17", "~1.21", "^2.0", варианты через "||".
+ * Forge (maven): "[54,)", "(,1.2]", "[1.0]", несколько интервалов через запятую;
+ * версия без скобок у Forge – рекомендуемая и подходит любая.
+ * Непонятный диапазон считается выполненным: лучше пропустить проблему, чем не дать запустить игру.
+ */
+public class VersionRange {
+
+    private VersionRange() {
+    }
+
+    public static boolean matches(String range, String version, boolean maven) {
+        range = range == null ? "" : range.trim();
+        if (range.isEmpty() || range.equals("*") || version == null || version.isEmpty()) {
+            return true;
+        }
+        try {
+            return maven ? matchesMaven(range, version) : matchesFabric(range, version);
+        } catch (RuntimeException ex) {
+            return true;
+        }
+    }
+
+    private static boolean matchesMaven(String range, String version) {
+        if (range.charAt(0) != '[' && range.charAt(0) != '(') {
+            return true;
+        }
+        // [1,2),[3,4) – подходит любой интервал
+        int start = 0;
+        while (start < range.length()) {
+            int end = start + 1;
+            while (end < range.length() && range.charAt(end) != ']' && range.charAt(end) != ')') {
+                end++;
+            }
+            if (matchesInterval(range.substring(start, end + 1), version)) {
+                return true;
+            }
+            start = end + 1;
+            while (start < range.length() && (range.charAt(start) == ',' || range.charAt(start) == ' ')) {
+                start++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesInterval(String interval, String version) {
+        boolean lowerInclusive = interval.charAt(0) == '[';
+        boolean upperInclusive = interval.charAt(interval.length() - 1) == ']';
+        String body = interval.substring(1, interval.length() - 1).trim();
+        int comma = body.indexOf(',');
+        if (comma < 0) {
+            return compare(version, body) == 0;
+        }
+        String lower = body.substring(0, comma).trim();
+        String upper = body.substring(comma + 1).trim();
+        if (!lower.isEmpty()) {
+            int cmp = compare(version, lower);
+            if (cmp < 0 || (cmp == 0 && !lowerInclusive)) {
+                return false;
+            }
+        }
+        if (!upper.isEmpty()) {
+            int cmp = compare(version, upper);
+            if (cmp > 0 || (cmp == 0 && !upperInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesFabric(String range, String version) {
+        for (String alternative : range.split("\\|\\|")) {
+            boolean all = true;
+            for (String predicate : alternative.trim().split("\\s+")) {
+                if (!predicate.isEmpty() && !matchesPredicate(predicate, version)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPredicate(String predicate, String version) {
+        if (predicate.equals("*")) {
+            return true;
+        }
+        if (predicate.startsWith(">=")) {
+            return compare(version, predicate.substring(2)) >= 0;
+        }
+        if (predicate.startsWith("<=")) {
+            return compare(version, predicate.substring(2)) <= 0;
+        }
+        if (predicate.startsWith(">")) {
+            return compare(version, predicate.substring(1)) > 0;
+        }
+        if (predicate.startsWith("<")) {
+            return compare(version, predicate.substring(1)) < 0;
+        }
+        if (predicate.startsWith("=")) {
+            return compare(version, predicate.substring(1)) == 0;
+        }
+        if (predicate.startsWith("~")) {
+            // ~1.21.4 – та же минорная версия: >=1.21.4 <1.22
+            String base = predicate.substring(1);
+            String[] parts = release(base).split("\\.");
+            String upper = parts.length < 2 ? (Long.parseLong(parts[0]) + 1) + ""
+                    : parts[0] + "." + (Long.parseLong(parts[1]) + 1);
+            return compare(version, base) >= 0 && compare(version, upper + "-") < 0;
+        }
+        if (predicate.startsWith("^")) {
+            // ^2.1 – та же мажорная версия: >=2.1 <3
+            String base = predicate.substring(1);
+            String major = release(base).split("\\.")[0];
+            return compare(version, base) >= 0 && compare(version, (Long.parseLong(major) + 1) + "-") < 0;
+        }
+        if (predicate.contains("x") || predicate.contains("X") || predicate.contains("*")) {
+            // 1.21.x – совпадение по известным частям
+            String[] wanted = predicate.split("\\.");
+            String[] actual = release(version).split("\\.");
+            for (int i = 0; i < wanted.length; i++) {
+                String part = wanted[i];
+                if (part.equals("x") || part.equals("X") || part.equals("*")) {
+                    return true;
+                }
+                if (i >= actual.length || compareParts(actual[i], part) != 0) {
+                    return false;
+                }
+            }
+            return actual.length == wanted.length;
+        }
+        if (!Character.isDigit(predicate.charAt(0))) {
+            // Не версия (например, имя ветки) – проверить нечем
+            return true;
+        }
+        return compare(version, predicate) == 0;
+    }
+
+    // Сравнение в духе semver: метаданные сборки (+...) не учитываются, 1.21 == 1.21.0,
+    // предрелиз (1.0.0-beta) младше релиза; "1.22-" – наименьшая версия 1.22
+    public static int compare(String a, String b) {
+        String[] left = splitPrerelease(a);
+        String[] right = splitPrerelease(b);
+        String[] leftParts = left[0].split("\\.");
+        String[] rightParts = right[0].split("\\.");
+        for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+            String l = i < leftParts.length ? leftParts[i] : "0";
+            String r = i < rightParts.length ? rightParts[i] : "0";
+            int cmp = compareParts(l, r);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        if (left[1] == null || right[1] == null) {
+            return left[1] == null ? (right[1] == null ? 0 : 1) : -1;
+        }
+        String[] leftPre = left[1].split("\\.");
+        String[] rightPre = right[1].split("\\.");
+        for (int i = 0; i < Math.min(leftPre.length, rightPre.length); i++) {
+            int cmp = compareParts(leftPre[i], rightPre[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(leftPre.length, rightPre.length);
+    }
+
+    private static String release(String version) {
+        return splitPrerelease(version)[0];
+    }
+
+    // [релиз, предрелиз или null]
+    private static String[] splitPrerelease(String version) {
+        String v = version.trim();
+        int plus = v.indexOf('+');
+        if (plus >= 0) {
+            v = v.substring(0, plus);
+        }
+        int dash = v.indexOf('-');
+        if (dash < 0) {
+            return new String[] {v, null};
+        }
+        return new String[] {v.substring(0, dash), v.substring(dash + 1)};
+    }
+
+    private static int compareParts(String a, String b) {
+        boolean aNumber = a.matches("\\d+");
+        boolean bNumber = b.matches("\\d+");
+        if (aNumber && bNumber) {
+            return Long.compare(Long.parseLong(a), Long.parseLong(b));
+        }
+        if (aNumber != bNumber) {
+            // Числовая часть младше буквенной
+            return aNumber ? -1 : 1;
+        }
+        return a.compareTo(b);
+    }
+}
@@ -6,7 +6,6 @@ import javax.swing.event.HyperlinkListener;
 import java.awt.*;
 import java.awt.Desktop;
 import java.net.URI;
-import java.io.File;
 
 public class AdPanel extends JPanel {
 
@@ -30,7 +29,7 @@ public class AdPanel extends JPanel {
         adPane.putClientProperty(JEditorPane.HONOR_DISPLAY_PROPERTIES, true);
 
         // Загружаем и назначаем Aptos-SemiBold
-        Font semiBoldFont = loadSemiBoldFont(14f);
+        Font semiBoldFont = ResourceCache.semiBoldFont(14f);
         adPane.setFont(semiBoldFont);
 
         // Обработчик ссылок
@@ -49,14 +48,4 @@ public class AdPanel extends JPanel {
 
         add(adPane, BorderLayout.WEST);
     }
-
-    private Font loadSemiBoldFont(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT, new File("resources/fonts/Aptos-SemiBold.ttf"))
-                       .deriveFont(size);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return new Font("SansSerif", Font.PLAIN, (int) size);
-        }
-    }
 }
@@ -1,23 +1,48 @@
 package com.launcher.ui;
 
 import com.formdev.flatlaf.FlatDarkLaf;
-import com.launcher.ConfigLoader;
+import com.launcher.ConfigCache;
 import com.launcher.ServerConfig;
 import com.launcher.ServerList;
+import com.launcher.assets.AssetFetcher;
+import com.launcher.assets.AssetIndex;
+import com.launcher.download.DownloadManager;
+import com.launcher.launch.ArgFile;
+import com.launcher.launch.CdsArchive;
+import com.launcher.launch.ClasspathResolver;
+import com.launcher.launch.GameLogPump;
+import com.launcher.launch.GameSupervisor;
+import com.launcher.launch.JvmProfile;
+import com.launcher.launch.LibraryManifest;
+import com.launcher.mods.ModDependencyResolver;
+import com.launcher.mods.ModIndex;
+import com.launcher.mods.ModInfo;
+import com.launcher.mods.ModProfiles;
+import com.launcher.mods.ModStateEngine;
+import com.launcher.mods.ModSynchronizer;
+import com.launcher.util.ContentStore;
+import com.launcher.util.HashCache;
+import com.launcher.util.LauncherExecutor;
 
 import javax.swing.*;
 import javax.swing.plaf.FontUIResource;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
-import java.net.URL;
-import java.net.URLConnection;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public class LauncherUI extends JFrame {
 
     private static final String SETTINGS_FILE_NAME = "settings.txt";
+    // Сколько проблем с модами показывать в окне перед запуском
+    private static final int MAX_SHOWN_PROBLEMS = 10;
     private Properties settings = new Properties();
 
     // Панель контента с CardLayout для центральной части
@@ -30,6 +55,8 @@ public class LauncherUI extends JFrame {
     private SettingsPanel settingsPanel;
 
     private List<ServerConfig> serverConfigs;
+    // Вывод последнего запуска игры; читается вкладкой "Логи"
+    private volatile GameLogPump gameLogPump;
 
     public LauncherUI() {
         try {
@@ -39,15 +66,8 @@ public class LauncherUI extends JFrame {
             ex.printStackTrace();
         }
 
-        Font aptosSemiBold;
-        try {
-            aptosSemiBold = Font.createFont(Font.TRUETYPE_FONT, new File("resources/fonts/Aptos-SemiBold.ttf"))
-                    .deriveFont(14f);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            aptosSemiBold = new Font("SansSerif", Font.BOLD, 14);
-        }
-        setGlobalFont(new FontUIResource(aptosSemiBold));
+        // Шрифт разбирается один раз на весь лаунчер, панели берут его из того же кеша
+        setGlobalFont(new FontUIResource(ResourceCache.semiBoldFont(14f)));
 
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         setSize(screenSize.width / 2, screenSize.height / 2);
@@ -86,6 +106,12 @@ public class LauncherUI extends JFrame {
         cp.add(mainBottomPanel, BorderLayout.SOUTH);
 
         loadServerConfigsInBackground();
+
+        // Убираем из общего хранилища файлы, на которые больше не ссылается ни один сервер и профиль модов
+        LauncherExecutor.execute(() -> {
+            File versionDir = new File("version");
+            ContentStore.getDefault().gc(versionDir, ModProfiles.referencedBlobs(versionDir));
+        });
     }
 
     public static void setGlobalFont(FontUIResource f) {
@@ -106,17 +132,104 @@ public class LauncherUI extends JFrame {
             return;
         }
         File installDir = getInstallDirForServer(serverName);
-        File clientJar = new File(installDir, "client.jar");
-        if (!clientJar.exists()) {
-            mainBottomPanel.playButton.setEnabled(false);
-            installGameWithProgress();
-        } else {
-            ServerConfig cfg = getServerConfigByName(serverName);
-            if (cfg != null) {
-                settingsPanel.applyModSelection(cfg);
-                runGame(installDir, cfg, mainBottomPanel.nicknameField.getText().trim());
+        ServerConfig cfg = getServerConfigByName(serverName);
+        // Галочки модов снимаются с панели в EDT, а переносы файлов и проверка хешей идут в фоне
+        Map<String, Boolean> modSelection = settingsPanel.getModSelection();
+        String nickname = mainBottomPanel.nicknameField.getText().trim();
+        mainBottomPanel.playButton.setEnabled(false);
+        LauncherExecutor.run(() -> prepareLaunch(installDir, cfg, modSelection), check -> {
+            if (!check.installed) {
+                installGameWithProgress();
+                return;
+            }
+            if (cfg == null) {
+                mainBottomPanel.playButton.setEnabled(true);
+                return;
+            }
+            if (!check.failures.isEmpty()) {
+                StringBuilder message = new StringBuilder("Не удалось включить или отключить моды:\n");
+                for (ModStateEngine.Failure failure : check.failures) {
+                    message.append("• ").append(failure).append('\n');
+                }
+                JOptionPane.showMessageDialog(this, message.toString(), "Моды", JOptionPane.WARNING_MESSAGE);
             }
+            if (check.syncNeeded) {
+                syncModsAndRun(check.synchronizer, installDir, cfg, nickname);
+            } else {
+                checkModsAndRun(installDir, cfg, nickname);
+            }
+        }, ex -> {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Ошибка подготовки запуска: " + ex.getMessage(),
+                    "Ошибка", JOptionPane.ERROR_MESSAGE);
+            mainBottomPanel.playButton.setEnabled(true);
+        });
+    }
+
+    // Результат фоновой подготовки к запуску
+    private static class LaunchCheck {
+        boolean installed;
+        List<ModStateEngine.Failure> failures = Collections.emptyList();
+        ModSynchronizer synchronizer;
+        boolean syncNeeded;
+    }
+
+    // Фоновая часть onPlayClicked: проверка client.jar, перенос модов по галочкам и сверка со списком сервера
+    private static LaunchCheck prepareLaunch(File installDir, ServerConfig cfg, Map<String, Boolean> modSelection) {
+        LaunchCheck check = new LaunchCheck();
+        installDir.mkdirs();
+        check.installed = new File(installDir, "client.jar").exists();
+        if (!check.installed || cfg == null) {
+            return check;
         }
+        check.failures = new ModStateEngine(new File(installDir, "mods")).apply(modSelection).failures;
+        check.synchronizer = new ModSynchronizer(installDir, HashCache.getDefault(), ContentStore.getDefault());
+        check.syncNeeded = check.synchronizer.needed(cfg);
+        return check;
+    }
+
+    // Приводит моды к списку сервера и после этого запускает игру
+    private void syncModsAndRun(ModSynchronizer synchronizer, File installDir, ServerConfig cfg, String nickname) {
+        mainBottomPanel.playButton.setEnabled(false);
+        JDialog dlg = new JDialog(this, "Обновление модов...", true);
+        JProgressBar bar = new JProgressBar(0, 100);
+        bar.setStringPainted(true);
+        dlg.add(bar);
+        dlg.setSize(300, 100);
+        dlg.setLocationRelativeTo(this);
+
+        new SwingWorker<Void, Integer>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                synchronizer.sync(cfg, (done, total) -> {
+                    if (total > 0) {
+                        publish((int) (done * 100 / total));
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                bar.setValue(chunks.get(chunks.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                dlg.dispose();
+                try {
+                    get();
+                    checkModsAndRun(installDir, cfg, nickname);
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(LauncherUI.this, "Ошибка обновления модов: " + cause.getMessage(),
+                            "Ошибка", JOptionPane.ERROR_MESSAGE);
+                    mainBottomPanel.playButton.setEnabled(true);
+                }
+            }
+        }.execute();
+        dlg.setVisible(true);
     }
 
     // Метод скачивает client.jar по URL из конфигурации сервера
@@ -133,9 +246,6 @@ public class LauncherUI extends JFrame {
             return;
         }
         File installDir = getInstallDirForServer(serverName);
-        if (!installDir.exists()) {
-            installDir.mkdirs();
-        }
         File clientJar = new File(installDir, "client.jar");
 
         JDialog dlg = new JDialog(this, "Установка...", true);
@@ -148,25 +258,19 @@ public class LauncherUI extends JFrame {
         new SwingWorker<Void, Integer>() {
             @Override
             protected Void doInBackground() throws Exception {
-                URL url = new URL(sc.download_link);
-                URLConnection connection = url.openConnection();
-                connection.setConnectTimeout(10000);
-                connection.setReadTimeout(10000);
-                int contentLength = connection.getContentLength();
-                try (BufferedInputStream in = new BufferedInputStream(connection.getInputStream());
-                     FileOutputStream fos = new FileOutputStream(clientJar)) {
-                    byte[] dataBuffer = new byte[1024];
-                    int bytesRead;
-                    long totalRead = 0;
-                    while ((bytesRead = in.read(dataBuffer, 0, 1024)) != -1) {
-                        fos.write(dataBuffer, 0, bytesRead);
-                        totalRead += bytesRead;
-                        if (contentLength > 0) {
-                            int progress = (int) (totalRead * 100 / contentLength);
-                            publish(progress);
-                        }
-                    }
+                installDir.mkdirs();
+                ContentStore store = ContentStore.getDefault();
+                // client.jar той же версии уже есть у другого сервера – ставим ссылку на него
+                String stored = store.sha1ForUrl(sc.download_link);
+                if (stored != null && store.materialize(stored, clientJar)) {
+                    return null;
                 }
+                new DownloadManager().download(sc.download_link, clientJar, (done, total) -> {
+                    if (total > 0) {
+                        publish((int) (done * 100 / total));
+                    }
+                });
+                store.adopt(clientJar, sc.download_link);
                 return null;
             }
 
@@ -186,212 +290,153 @@ public class LauncherUI extends JFrame {
         dlg.setVisible(true);
     }
 
-    private void runGame(File installDir, ServerConfig cfg, String nickname) {
-        try {
-            mainBottomPanel.playButton.setEnabled(false);
-            File clientJar = new File(installDir, "client.jar");
-            if (!clientJar.exists()) {
-                JOptionPane.showMessageDialog(this, "Не найден client.jar!", "Ошибка", JOptionPane.ERROR_MESSAGE);
-                mainBottomPanel.playButton.setEnabled(true);
-                return;
+    // Проверяет зависимости включённых модов до запуска JVM; при ошибках спрашивает, запускать ли игру.
+    // Jar-файлы читаются в фоне, в EDT – только окно с проблемами
+    private void checkModsAndRun(File installDir, ServerConfig cfg, String nickname) {
+        mainBottomPanel.playButton.setEnabled(false);
+        LauncherExecutor.run(() -> {
+            ModIndex index = ModIndex.getDefault();
+            List<ModInfo> mods = index.scan(new File(installDir, "mods"));
+            index.save();
+            return new ModDependencyResolver(cfg).check(mods);
+        }, problems -> {
+            for (ModDependencyResolver.Problem problem : problems) {
+                System.out.println((problem.error ? "Ошибка модов: " : "Предупреждение модов: ") + problem.message);
             }
-            String xmx = "-Xmx" + settings.getProperty("ram", "2") + "G";
-            // Заполните baseClasspath и mainClass по своему усмотрению
-            String baseClasspath = clientJar
-                    + ";lib/ll/night-config/toml/3.7.4/toml-3.7.4.jar"
-                    + ";lib/com/fasterxml/jackson/core/jackson-annotations/2.13.4/jackson-annotations-2.13.4.jar"
-                    + ";lib/com/fasterxml/jackson/core/jackson-core/2.13.4/jackson-core-2.13.4.jar"
-                    + ";lib/com/fasterxml/jackson/core/jackson-databind/2.13.4.2/jackson-databind-2.13.4.2.jar"
-                    + ";lib/com/github/oshi/oshi-core/6.6.5/oshi-core-6.6.5.jar"
-                    + ";lib/com/github/stephenc/jcip/jcip-annotations/1.0-1/jcip-annotations-1.0-1.jar"
-                    + ";lib/com/google/code/gson/gson/2.11.0/gson-2.11.0.jar"
-                    + ";lib/com/google/guava/failureaccess/1.0.1/failureaccess-1.0.1.jar"
-                    + ";lib/com/google/guava/failureaccess/1.0.2/failureaccess-1.0.2.jar"
-                    + ";lib/com/google/guava/guava/32.1.2-jre/guava-32.1.2-jre.jar"
-                    + ";lib/com/google/guava/guava/33.3.1-jre/guava-33.3.1-jre.jar"
-                    + ";lib/com/ibm/icu/icu4j/76.1/icu4j-76.1.jar"
-                    + ";lib/com/microsoft/azure/msal4j/1.17.2/msal4j-1.17.2.jar"
-                    + ";lib/com/mojang/authlib/6.0.57/authlib-6.0.57.jar"
-                    + ";lib/com/mojang/blocklist/1.0.10/blocklist-1.0.10.jar"
-                    + ";lib/com/mojang/brigadier/1.3.10/brigadier-1.3.10.jar"
-                    + ";lib/com/mojang/datafixerupper/8.0.16/datafixerupper-8.0.16.jar"
-                    + ";lib/com/mojang/jtracy/1.0.29/jtracy-1.0.29-natives-windows.jar"
-                    + ";lib/com/mojang/jtracy/1.0.29/jtracy-1.0.29.jar"
-                    + ";lib/com/mojang/logging/1.5.10/logging-1.5.10.jar"
-                    + ";lib/com/mojang/patchy/2.2.10/patchy-2.2.10.jar"
-                    + ";lib/com/mojang/text2speech/1.17.9/text2speech-1.17.9.jar"
-                    + ";lib/com/nimbusds/content-type/2.3/content-type-2.3.jar"
-                    + ";lib/com/nimbusds/lang-tag/1.7/lang-tag-1.7.jar"
-                    + ";lib/com/nimbusds/nimbus-jose-jwt/9.40/nimbus-jose-jwt-9.40.jar"
-                    + ";lib/com/nimbusds/oauth2-oidc-sdk/11.18/oauth2-oidc-sdk-11.18.jar"
-                    + ";lib/commons-codec/commons-codec/1.17.1/commons-codec-1.17.1.jar"
-                    + ";lib/commons-io/commons-io/2.17.0/commons-io-2.17.0.jar"
-                    + ";lib/commons-logging/commons-logging/1.3.4/commons-logging-1.3.4.jar"
-                    + ";lib/de/oceanlabs/mcp/mcp_config/1.21.4-20241203.143248/mcp_config-1.21.4-20241203.143248-srg2off.jar"
-                    + ";lib/io/netty/netty-buffer/4.1.115.Final/netty-buffer-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-codec/4.1.115.Final/netty-codec-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-common/4.1.115.Final/netty-common-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-handler/4.1.115.Final/netty-handler-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-resolver/4.1.115.Final/netty-resolver-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-transport/4.1.115.Final/netty-transport-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-transport-classes-epoll/4.1.115.Final/netty-transport-classes-epoll-4.1.115.Final.jar"
-                    + ";lib/io/netty/netty-transport-native-unix-common/4.1.115.Final/netty-transport-native-unix-common-4.1.115.Final.jar"
-                    + ";lib/it/unimi/dsi/fastutil/8.5.15/fastutil-8.5.15.jar"
-                    + ";lib/net/fabricmc/fabric-loader/0.16.10/fabric-loader-0.16.10.jar"
-                    + ";lib/net/fabricmc/intermediary/1.21.4/intermediary-1.21.4.jar"
-                    + ";lib/net/fabricmc/sponge-mixin/0.15.4+mixin.0.8.7/sponge-mixin-0.15.4+mixin.0.8.7.jar"
-                    + ";lib/net/java/dev/jna/jna/5.15.0/jna-5.15.0.jar"
-                    + ";lib/net/java/dev/jna/jna-platform/5.15.0/jna-platform-5.15.0.jar"
-                    + ";lib/net/jodah/typetools/0.6.3/typetools-0.6.3.jar"
-                    + ";lib/net/minecraft/client/1.21.4/client-1.21.4-official.jar"
-                    + ";lib/net/minecraftforge/accesstransformers/8.2.0/accesstransformers-8.2.0.jar"
-                    + ";lib/net/minecraftforge/accesstransformers/8.2.2/accesstransformers-8.2.2.jar"
-                    + ";lib/net/minecraftforge/bootstrap/2.1.6/bootstrap-2.1.6.jar"
-                    + ";lib/net/minecraftforge/bootstrap/2.1.8/bootstrap-2.1.8.jar"
-                    + ";lib/net/minecraftforge/bootstrap-api/2.1.6/bootstrap-api-2.1.6.jar"
-                    + ";lib/net/minecraftforge/bootstrap-api/2.1.8/bootstrap-api-2.1.8.jar"
-                    + ";lib/net/minecraftforge/coremods/5.2.1/coremods-5.2.1.jar"
-                    + ";lib/net/minecraftforge/coremods/5.2.6/coremods-5.2.6.jar"
-                    + ";lib/net/minecraftforge/eventbus/6.2.27/eventbus-6.2.27.jar"
-                    + ";lib/net/minecraftforge/eventbus/6.2.8/eventbus-6.2.8.jar"
-                    + ";lib/net/minecraftforge/fmlcore/1.21.4-54.0.6/fmlcore-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/fmlcore/1.21.4-54.1.0/fmlcore-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/fmlearlydisplay/1.21.4-54.0.6/fmlearlydisplay-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/fmlearlydisplay/1.21.4-54.1.0/fmlearlydisplay-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/fmlloader/1.21.4-54.0.6/fmlloader-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/fmlloader/1.21.4-54.1.0/fmlloader-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.0.6/forge-1.21.4-54.0.6-client.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.0.6/forge-1.21.4-54.0.6-shim.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.0.6/forge-1.21.4-54.0.6-universal.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.1.0/forge-1.21.4-54.1.0-client.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.1.0/forge-1.21.4-54.1.0-shim.jar"
-                    + ";lib/net/minecraftforge/forge/1.21.4-54.1.0/forge-1.21.4-54.1.0-universal.jar"
-                    + ";lib/net/minecraftforge/forgespi/7.1.5/forgespi-7.1.5.jar"
-                    + ";lib/net/minecraftforge/JarJarFileSystems/0.3.26/JarJarFileSystems-0.3.26.jar"
-                    + ";lib/net/minecraftforge/JarJarMetadata/0.3.26/JarJarMetadata-0.3.26.jar"
-                    + ";lib/net/minecraftforge/JarJarSelector/0.3.26/JarJarSelector-0.3.26.jar"
-                    + ";lib/net/minecraftforge/javafmllanguage/1.21.4-54.0.6/javafmllanguage-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/javafmllanguage/1.21.4-54.1.0/javafmllanguage-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/lowcodelanguage/1.21.4-54.0.6/lowcodelanguage-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/lowcodelanguage/1.21.4-54.1.0/lowcodelanguage-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/mclanguage/1.21.4-54.0.6/mclanguage-1.21.4-54.0.6.jar"
-                    + ";lib/net/minecraftforge/mclanguage/1.21.4-54.1.0/mclanguage-1.21.4-54.1.0.jar"
-                    + ";lib/net/minecraftforge/mergetool-api/1.0/mergetool-api-1.0.jar"
-                    + ";lib/net/minecraftforge/modlauncher/10.2.2/modlauncher-10.2.2.jar"
-                    + ";lib/net/minecraftforge/modlauncher/10.2.4/modlauncher-10.2.4.jar"
-                    + ";lib/net/minecraftforge/securemodules/2.2.20/securemodules-2.2.20.jar"
-                    + ";lib/net/minecraftforge/securemodules/2.2.21/securemodules-2.2.21.jar"
-                    + ";lib/net/minecraftforge/unsafe/0.9.2/unsafe-0.9.2.jar"
-                    + ";lib/net/minecrell/terminalconsoleappender/1.2.0/terminalconsoleappender-1.2.0.jar"
-                    + ";lib/net/minidev/accessors-smart/2.5.1/accessors-smart-2.5.1.jar"
-                    + ";lib/net/minidev/json-smart/2.5.1/json-smart-2.5.1.jar"
-                    + ";lib/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar"
-                    + ";lib/optifine/OptiFine/1.21.4_HD_U_J3_pre5/OptiFine-1.21.4_HD_U_J3_pre5.jar"
-                    + ";lib/org/apache/commons/commons-compress/1.27.1/commons-compress-1.27.1.jar"
-                    + ";lib/org/apache/commons/commons-lang3/3.17.0/commons-lang3-3.17.0.jar"
-                    + ";lib/org/apache/httpcomponents/httpclient/4.5.14/httpclient-4.5.14.jar"
-                    + ";lib/org/apache/httpcomponents/httpcore/4.4.16/httpcore-4.4.16.jar"
-                    + ";lib/org/apache/logging/log4j/log4j-api/2.24.1/log4j-api-2.24.1.jar"
-                    + ";lib/org/apache/logging/log4j/log4j-core/2.24.1/log4j-core-2.24.1.jar"
-                    + ";lib/org/apache/logging/log4j/log4j-slf4j2-impl/2.24.1/log4j-slf4j2-impl-2.24.1.jar"
-                    + ";lib/org/apache/maven/maven-artifact/3.8.5/maven-artifact-3.8.5.jar"
-                    + ";lib/org/apache/maven/maven-artifact/3.8.8/maven-artifact-3.8.8.jar"
-                    + ";lib/org/jcraft/jorbis/0.0.17/jorbis-0.0.17.jar"
-                    + ";lib/org/jline/jline-reader/3.12.1/jline-reader-3.12.1.jar"
-                    + ";lib/org/jline/jline-reader/3.25.1/jline-reader-3.25.1.jar"
-                    + ";lib/org/jline/jline-terminal/3.12.1/jline-terminal-3.12.1.jar"
-                    + ";lib/org/jline/jline-terminal/3.25.1/jline-terminal-3.25.1.jar"
-                    + ";lib/org/jline/jline-terminal-jna/3.12.1/jline-terminal-jna-3.12.1.jar"
-                    + ";lib/org/jline/jline-terminal-jna/3.25.1/jline-terminal-jna-3.25.1.jar"
-                    + ";lib/org/joml/joml/1.10.8/joml-1.10.8.jar"
-                    + ";lib/org/lwjgl/lwjgl/3.3.3/lwjgl-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl/3.3.3/lwjgl-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl/3.3.3/lwjgl-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl/3.3.3/lwjgl-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-freetype/3.3.3/lwjgl-freetype-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-freetype/3.3.3/lwjgl-freetype-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-freetype/3.3.3/lwjgl-freetype-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-freetype/3.3.3/lwjgl-freetype-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-glfw/3.3.3/lwjgl-glfw-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-glfw/3.3.3/lwjgl-glfw-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-glfw/3.3.3/lwjgl-glfw-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-glfw/3.3.3/lwjgl-glfw-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-jemalloc/3.3.3/lwjgl-jemalloc-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-jemalloc/3.3.3/lwjgl-jemalloc-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-jemalloc/3.3.3/lwjgl-jemalloc-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-jemalloc/3.3.3/lwjgl-jemalloc-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-openal/3.3.3/lwjgl-openal-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-openal/3.3.3/lwjgl-openal-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-openal/3.3.3/lwjgl-openal-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-openal/3.3.3/lwjgl-openal-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-opengl/3.3.3/lwjgl-opengl-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-opengl/3.3.3/lwjgl-opengl-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-opengl/3.3.3/lwjgl-opengl-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-opengl/3.3.3/lwjgl-opengl-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-stb/3.3.3/lwjgl-stb-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-stb/3.3.3/lwjgl-stb-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-stb/3.3.3/lwjgl-stb-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-stb/3.3.3/lwjgl-stb-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lwjgl/lwjgl-tinyfd/3.3.3/lwjgl-tinyfd-3.3.3.jar"
-                    + ";lib/org/lwjgl/lwjgl-tinyfd/3.3.3/lwjgl-tinyfd-3.3.3-natives-windows.jar"
-                    + ";lib/org/lwjgl/lwjgl-tinyfd/3.3.3/lwjgl-tinyfd-3.3.3-natives-windows-arm64.jar"
-                    + ";lib/org/lwjgl/lwjgl-tinyfd/3.3.3/lwjgl-tinyfd-3.3.3-natives-windows-x86.jar"
-                    + ";lib/org/lz4/lz4-java/1.8.0/lz4-java-1.8.0.jar"
-                    + ";lib/org/openjdk/nashorn/nashorn-core/15.4/nashorn-core-15.4.jar"
-                    + ";lib/org/ow2/asm/asm/9.7.1/asm-9.7.1.jar"
-                    + ";lib/org/ow2/asm/asm-analysis/9.7.1/asm-analysis-9.7.1.jar"
-                    + ";lib/org/ow2/asm/asm-commons/9.7.1/asm-commons-9.7.1.jar"
-                    + ";lib/org/ow2/asm/asm-tree/9.7.1/asm-tree-9.7.1.jar"
-                    + ";lib/org/ow2/asm/asm-util/9.7.1/asm-util-9.7.1.jar"
-                    + ";lib/org/slf4j/slf4j-api/2.0.16/slf4j-api-2.0.16.jar"
-                    // + ";lib/org/spongepowered/mixin/0.8.7/mixin-0.8.7.jar"
-                    + ";lib/v1/objects/a7e5a6024bfd3cd614625aa05629adf760020304/client.jar";
-            String mainClass;
-            if (cfg.fabric_version != null && !cfg.fabric_version.trim().isEmpty()) {
-                mainClass = "net.fabricmc.loader.impl.launch.knot.KnotClient";
-            } else if (cfg.forge_version != null && !cfg.forge_version.trim().isEmpty()) {
-                mainClass = "net.minecraft.client.main.Main";
-            } else {
-                throw new IllegalArgumentException("Неизвестный загрузчик для сервера.");
+            if (ModDependencyResolver.hasErrors(problems)) {
+                StringBuilder message = new StringBuilder("Игра, скорее всего, не запустится:\n");
+                int errors = 0;
+                for (ModDependencyResolver.Problem problem : problems) {
+                    if (problem.error && errors++ < MAX_SHOWN_PROBLEMS) {
+                        message.append("• ").append(problem.message).append('\n');
+                    }
+                }
+                if (errors > MAX_SHOWN_PROBLEMS) {
+                    message.append("…и ещё ").append(errors - MAX_SHOWN_PROBLEMS).append('\n');
+                }
+                message.append("\nЗапустить всё равно?");
+                int answer = JOptionPane.showConfirmDialog(this, message.toString(), "Проблемы с модами",
+                        JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+                if (answer != JOptionPane.YES_OPTION) {
+                    mainBottomPanel.playButton.setEnabled(true);
+                    return;
+                }
             }
-            ProcessBuilder pb = new ProcessBuilder(
-                    "java", xmx, "-Djava.library.path=native", "-cp", baseClasspath,
-                    mainClass, "--accessToken", "dummy", "--uuid", "dummy-uuid",
-                    "--clientId", "dummy-clientid", "--xuid", "dummy-xuid",
-                    "--version", cfg.minecraft_version, "--gameDir", installDir.getAbsolutePath(),
-                    "--assetsDir", new File("assets").getAbsolutePath(), "--assetIndex", "19",
-                    "--username", nickname);
-            pb.directory(new File("."));
-            pb.inheritIO();
-            Process proc = pb.start();
+            runGame(installDir, cfg, nickname);
+        }, ex -> {
+            ex.printStackTrace();
+            mainBottomPanel.playButton.setEnabled(true);
+        });
+    }
+
+    // Classpath, файл аргументов и архив CDS готовятся в фоне вместе с запуском процесса;
+    // в EDT остаются только окно лаунчера и оверлей телеметрии
+    private void runGame(File installDir, ServerConfig cfg, String nickname) {
+        mainBottomPanel.playButton.setEnabled(false);
+        LauncherExecutor.run(() -> startGame(installDir, cfg, nickname), proc -> {
+            // Вывод игры забирает GameLogPump: буфер для вкладки "Логи" и сжатые файлы в version/<server>/logs.
+            // Подключается здесь, в EDT: пока вывод не читают, он ждёт в канале процесса
+            GameLogPump logPump = new GameLogPump(installDir, GameLogPump.DEFAULT_CAPACITY);
+            logPump.attach(proc);
+            gameLogPump = logPump;
             if (Boolean.parseBoolean(settings.getProperty("hideLauncher"))) {
                 setVisible(false);
             }
-            new Thread(() -> {
-                try {
-                    proc.waitFor();
-                } catch (InterruptedException ex) {
-                    ex.printStackTrace();
+            // Замеры CPU, памяти и пауз GC; итоги сеанса – в version/<server>/logs
+            GameSupervisor supervisor = new GameSupervisor(proc, installDir);
+            TelemetryOverlay overlay = null;
+            if (Boolean.parseBoolean(settings.getProperty("gameTelemetry", "false"))) {
+                overlay = new TelemetryOverlay();
+                overlay.setVisible(true);
+            }
+            TelemetryOverlay shownOverlay = overlay;
+            supervisor.start(shownOverlay != null ? shownOverlay::update : null);
+            Runnable onExit = () -> {
+                if (shownOverlay != null) {
+                    shownOverlay.dispose();
                 }
-                SwingUtilities.invokeLater(() -> {
-                    mainBottomPanel.playButton.setEnabled(true);
-                    setVisible(true);
-                });
-            }).start();
-        } catch (IOException ex) {
+                mainBottomPanel.playButton.setEnabled(true);
+                setVisible(true);
+            };
+            LauncherExecutor.run(() -> {
+                supervisor.waitFor();
+                return null;
+            }, done -> onExit.run(), ex -> {
+                ex.printStackTrace();
+                onExit.run();
+            });
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Ошибка запуска: " + ex.getMessage(),
                     "Ошибка", JOptionPane.ERROR_MESSAGE);
             mainBottomPanel.playButton.setEnabled(true);
+        });
+    }
+
+    // Фоновая часть runGame: собирает команду и запускает игру
+    private Process startGame(File installDir, ServerConfig cfg, String nickname) throws IOException {
+        File clientJar = new File(installDir, "client.jar");
+        if (!clientJar.exists()) {
+            throw new FileNotFoundException("Не найден client.jar!");
+        }
+        String mainClass;
+        String loader;
+        String loaderVersion;
+        if (cfg.fabric_version != null && !cfg.fabric_version.trim().isEmpty()) {
+            mainClass = "net.fabricmc.loader.impl.launch.knot.KnotClient";
+            loader = ClasspathResolver.LOADER_FABRIC;
+            loaderVersion = cfg.fabric_version;
+        } else if (cfg.forge_version != null && !cfg.forge_version.trim().isEmpty()) {
+            mainClass = "net.minecraft.client.main.Main";
+            loader = ClasspathResolver.LOADER_FORGE;
+            loaderVersion = cfg.forge_version;
+        } else {
+            throw new IllegalArgumentException("Неизвестный загрузчик для сервера.");
+        }
+        // Classpath собирается из libraries.json: только библиотеки этого загрузчика и этой ОС,
+        // по одной версии каждого артефакта – той, что требует версия загрузчика сервера
+        List<File> libraries = new ClasspathResolver(new File("lib"))
+                .resolve(LibraryManifest.load(installDir), loader, loaderVersion);
+        List<File> classpath = new ArrayList<>();
+        classpath.add(clientJar);
+        classpath.addAll(libraries);
+        // Classpath передаётся файлом аргументов, а не строкой в командной строке
+        String classpathArgs = new ArgFile(installDir, loader).write(classpath);
+        System.out.println("Библиотек в classpath: " + libraries.size());
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        long heapMb = 2048;
+        try {
+            heapMb = Long.parseLong(settings.getProperty("ram", "2").trim()) * 1024;
+        } catch (NumberFormatException ex) {
+            System.out.println("Некорректный объём ОЗУ в настройках, используется 2 ГБ");
+        }
+        // Профиль JVM: из настроек сервера, если задан, иначе из настроек лаунчера
+        command.addAll(JvmProfile.forServer(cfg, settings.getProperty("jvmProfile"), heapMb));
+        command.add("-Djava.library.path=native");
+        // Журнал пауз GC для наблюдения за игрой (GameSupervisor)
+        command.add(GameSupervisor.gcLogArg(installDir));
+        // Быстрый запуск: архив классов AppCDS, созданный при прошлом запуске с тем же classpath
+        if (Boolean.parseBoolean(settings.getProperty("fastStart", "false"))) {
+            command.addAll(new CdsArchive(installDir).jvmArgs(classpath));
         }
+        command.add(classpathArgs);
+        command.addAll(List.of(
+                mainClass, "--accessToken", "dummy", "--uuid", "dummy-uuid",
+                "--clientId", "dummy-clientid", "--xuid", "dummy-xuid",
+                "--version", cfg.minecraft_version, "--gameDir", installDir.getAbsolutePath(),
+                "--assetsDir", new File("assets").getAbsolutePath(), "--assetIndex", AssetIndex.idFor(cfg),
+                "--username", nickname));
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(new File("."));
+        // Весь вывод игры – одним потоком для GameLogPump
+        pb.redirectErrorStream(true);
+        return pb.start();
     }
 
+    // Папку создают фоновые задачи установки и запуска, не EDT
     private File getInstallDirForServer(String serverName) {
-        File dir = new File("version", serverName);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        return dir;
+        return new File("version", serverName);
     }
 
     // Приватный метод для поиска ServerConfig по имени
@@ -411,6 +456,16 @@ public class LauncherUI extends JFrame {
         return getServerConfigByName(name);
     }
 
+    // Вывод последнего запуска игры (null, если игра не запускалась)
+    public GameLogPump getGameLogPump() {
+        return gameLogPump;
+    }
+
+    // Публичный метод для чтения настройки из settings.txt
+    public String getSetting(String key, String defaultValue) {
+        return settings.getProperty(key, defaultValue);
+    }
+
     // Публичный метод для обновления ника и сохранения настроек
     public void updateNickname(String newNickname) {
         settings.setProperty("nickname", newNickname);
@@ -418,43 +473,61 @@ public class LauncherUI extends JFrame {
         System.out.println("Новый ник сохранён в settings.txt: " + newNickname);
     }
 
+    // Список серверов сразу берётся из кеша, затем перепроверяется на сервере в фоне
     private void loadServerConfigsInBackground() {
+        mainBottomPanel.serverComboBox.addActionListener(e -> {
+            String serverName = (String) mainBottomPanel.serverComboBox.getSelectedItem();
+            if (serverName != null) {
+                settingsPanel.updateModPanel(serverName);
+                mainBottomPanel.updatePlayButtonText();
+            }
+        });
+        ConfigCache cache = new ConfigCache(new File("cache"), System.getProperty("qm.serversUrl", ConfigCache.SERVERS_URL));
+        ServerList cached = cache.loadCached();
+        if (cached != null) {
+            applyServerList(cached);
+        }
         new SwingWorker<ServerList, Void>() {
             @Override
             protected ServerList doInBackground() throws Exception {
-                String url = "https://raw.githubusercontent.com/qpov/QmLauncher/refs/heads/main/servers.json?t="
-                        + System.currentTimeMillis();
-                return ConfigLoader.loadServerConfigs(url);
+                return cache.refresh();
             }
 
             @Override
             protected void done() {
                 try {
                     ServerList config = get();
-                    if (config != null && config.servers != null) {
-                        serverConfigs = config.servers;
-                    } else {
-                        JOptionPane.showMessageDialog(LauncherUI.this,
-                                "Ошибка загрузки серверов.", "Error", JOptionPane.ERROR_MESSAGE);
+                    if (config != null) {
+                        applyServerList(config);
                     }
-                    for (ServerConfig sc : serverConfigs) {
-                        mainBottomPanel.serverComboBox.addItem(sc.name);
-                    }
-                    mainBottomPanel.updatePlayButtonText();
-                    mainBottomPanel.serverComboBox.addActionListener(e -> {
-                        String serverName = (String) mainBottomPanel.serverComboBox.getSelectedItem();
-                        if (serverName != null) {
-                            settingsPanel.updateModPanel(serverName);
-                            mainBottomPanel.updatePlayButtonText();
-                        }
-                    });
                 } catch (Exception ex) {
                     ex.printStackTrace();
+                    if (serverConfigs == null) {
+                        JOptionPane.showMessageDialog(LauncherUI.this,
+                                "Ошибка загрузки серверов.", "Error", JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        System.out.println("Не удалось обновить список серверов, используется сохранённый");
+                    }
                 }
             }
         }.execute();
     }
 
+    // Заполняет список серверов, сохраняя выбранный сервер, если он остался в списке
+    private void applyServerList(ServerList config) {
+        serverConfigs = config.servers;
+        JComboBox<String> comboBox = mainBottomPanel.serverComboBox;
+        Object selected = comboBox.getSelectedItem();
+        comboBox.removeAllItems();
+        for (ServerConfig sc : serverConfigs) {
+            comboBox.addItem(sc.name);
+        }
+        if (selected != null) {
+            comboBox.setSelectedItem(selected);
+        }
+        mainBottomPanel.updatePlayButtonText();
+    }
+
     private void loadSettings() {
         File file = new File(SETTINGS_FILE_NAME);
         if (file.exists()) {
@@ -472,14 +545,17 @@ public class LauncherUI extends JFrame {
         }
     }
 
+    // Запись в фоне; несколько изменений подряд дают одну запись файла
     private void saveSettings() {
-        File file = new File(SETTINGS_FILE_NAME);
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            settings.store(fos, "Launcher Settings");
-            fos.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        LauncherExecutor.coalesce(SETTINGS_FILE_NAME, () -> {
+            File file = new File(SETTINGS_FILE_NAME);
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                settings.store(fos, "Launcher Settings");
+                fos.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
     }
 
     public void switchToMain() {
@@ -503,8 +579,24 @@ public class LauncherUI extends JFrame {
     }
 
     public static void main(String[] args) {
+        // Размер пула keep-alive соединений на один хост (по умолчанию 5) – под число потоков загрузки ассетов
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(AssetFetcher.CONNECTIONS));
+        }
         SwingUtilities.invokeLater(() -> {
             LauncherUI launcher = new LauncherUI();
+            // -Dqm.startupTiming=true: время от старта JVM до первого кадра (например, для проверки архива CDS)
+            if (Boolean.getBoolean("qm.startupTiming")) {
+                launcher.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowOpened(WindowEvent e) {
+                        // Первая отрисовка уже в очереди событий – замеряем после неё
+                        SwingUtilities.invokeLater(() -> System.out.println("Время до первого кадра: "
+                                + ManagementFactory.getRuntimeMXBean().getUptime() + " мс ("
+                                + System.getProperty("java.vm.info") + ")"));
+                    }
+                });
+            }
             launcher.setVisible(true);
         });
     }
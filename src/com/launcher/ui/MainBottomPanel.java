@@ -1,16 +1,30 @@
 package com.launcher.ui;
 
+import com.launcher.archive.ParallelZipExtractor;
+import com.launcher.archive.SplitArchiveInputStream;
+import com.launcher.archive.ZipExtractor;
+import com.launcher.assets.AssetFetcher;
+import com.launcher.assets.AssetIndex;
+import com.launcher.assets.AssetIndex.AssetObject;
+import com.launcher.download.DownloadManager;
+import com.launcher.download.DownloadTask;
+import com.launcher.util.ContentStore;
+import com.launcher.util.HashCache;
+import com.launcher.util.LauncherExecutor;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MainBottomPanel extends JPanel {
 
@@ -31,6 +45,26 @@ public class MainBottomPanel extends JPanel {
     private static final int COMPONENT_HEIGHT = 28;
     private static final int PANEL_HEIGHT = 60;
 
+    // Адрес папки data с частями архивов; можно переопределить через -Dqm.dataUrl=... (например, локальный сервер)
+    private static final String DATA_BASE_URL = System.getProperty("qm.dataUrl",
+            "https://raw.githubusercontent.com/qpov/QmLauncher/refs/heads/main/data/");
+    private static final String[] ARCHIVES = {
+        "assets.zip.001",
+        "assets.zip.002",
+        "assets.zip.003",
+        "assets.zip.004",
+        "lib.zip.001",
+        "lib.zip.002",
+        "native.zip.001"
+    };
+    private static final String ASSETS_ARCHIVE = "assets.zip";
+    // Режим установки ассетов: archives – архивами assets.zip.*, objects – отдельными объектами по индексу
+    private static final String ASSETS_OBJECTS = "objects";
+    private static final String EXTRACT_PARALLEL = "parallel";
+    private static final String EXTRACT_STREAM = "stream";
+    // Доля шкалы прогресса, отведённая под скачивание
+    private static final int DOWNLOAD_PROGRESS_SHARE = 90;
+
     public MainBottomPanel() {
         setPreferredSize(new Dimension(0, PANEL_HEIGHT));
         setLayout(new BorderLayout());
@@ -42,7 +76,7 @@ public class MainBottomPanel extends JPanel {
         leftPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 16));
         leftPanel.setOpaque(false);
 
-        Font biggerFont = loadSemiBoldFont(16f);
+        Font biggerFont = ResourceCache.semiBoldFont(16f);
 
         // Кнопка "Играть"/"Установить"/"Переустановить"
         playButton = new JButton("Играть");
@@ -54,7 +88,7 @@ public class MainBottomPanel extends JPanel {
         leftPanel.add(playButton);
 
         // Кнопка переключения режима
-        toggleModeButton = new JButton(loadScaledIcon("resources/img/angles-up-down.png", 24, 24));
+        toggleModeButton = new JButton(ResourceCache.icon("resources/img/angles-up-down.png", 24, 24));
         styleTransparentButton(toggleModeButton, biggerFont);
         toggleModeButton.setPreferredSize(new Dimension(28, COMPONENT_HEIGHT));
         leftPanel.add(toggleModeButton);
@@ -134,12 +168,12 @@ public class MainBottomPanel extends JPanel {
         rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 16));
         rightPanel.setOpaque(false);
 
-        openFolderButton = new JButton(loadScaledIcon("resources/img/folder.png", 24, 24));
+        openFolderButton = new JButton(ResourceCache.icon("resources/img/folder.png", 24, 24));
         styleTransparentButton(openFolderButton, biggerFont);
         openFolderButton.setPreferredSize(new Dimension(28, COMPONENT_HEIGHT));
         rightPanel.add(openFolderButton);
 
-        settingsButton = new JButton(loadScaledIcon("resources/img/settings.png", 24, 24));
+        settingsButton = new JButton(ResourceCache.icon("resources/img/settings.png", 24, 24));
         styleTransparentButton(settingsButton, biggerFont);
         settingsButton.setPreferredSize(new Dimension(28, COMPONENT_HEIGHT));
         rightPanel.add(settingsButton);
@@ -181,26 +215,6 @@ public class MainBottomPanel extends JPanel {
         btn.setRolloverEnabled(false);
     }
 
-    private ImageIcon loadScaledIcon(String path, int width, int height) {
-        ImageIcon icon = new ImageIcon(path);
-        if (icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
-            System.err.println("Не удалось загрузить иконку: " + path);
-            return icon;
-        }
-        Image scaled = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
-    }
-
-    private Font loadSemiBoldFont(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT, new File("resources/fonts/Aptos-SemiBold.ttf"))
-                    .deriveFont(size);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return new Font("SansSerif", Font.BOLD, (int) size);
-        }
-    }
-
     private void initButtonActions() {
         playButton.addActionListener(e -> {
             // Если текст кнопки "Установить", запускаем скачивание и распаковку архивов,
@@ -242,7 +256,7 @@ public class MainBottomPanel extends JPanel {
     
     // Метод для обновления текста кнопки "Играть"/"Установить" и видимости кнопки toggleModeButton
     // Если в папке version/<serverName>/client.jar есть файл – устанавливаем "Играть" и показываем toggleModeButton,
-    // иначе "Установить" и скрываем toggleModeButton.
+    // иначе "Установить" и скрываем toggleModeButton. Файл проверяется в фоне.
     public void updatePlayButtonText() {
         Object selected = serverComboBox.getSelectedItem();
         if (selected == null) {
@@ -253,13 +267,19 @@ public class MainBottomPanel extends JPanel {
         String serverName = selected.toString();
         File installDir = new File("version", serverName);
         File clientJar = new File(installDir, "client.jar");
-        if (clientJar.exists()) {
-            playButton.setText("Играть");
-            toggleModeButton.setVisible(true);
-        } else {
-            playButton.setText("Установить");
-            toggleModeButton.setVisible(false);
-        }
+        LauncherExecutor.run(clientJar::exists, installed -> {
+            // Пока шла проверка, могли выбрать другой сервер – его проверка придёт своим ответом
+            if (!serverName.equals(String.valueOf(serverComboBox.getSelectedItem()))) {
+                return;
+            }
+            if (installed) {
+                playButton.setText("Играть");
+                toggleModeButton.setVisible(true);
+            } else {
+                playButton.setText("Установить");
+                toggleModeButton.setVisible(false);
+            }
+        });
     }
     
     public JPanel getLeftPanel() {
@@ -270,7 +290,8 @@ public class MainBottomPanel extends JPanel {
         return rightPanel;
     }
     
-    // Метод для скачивания client.jar (если отсутствует) и затем скачивания и распаковки архивов
+    // Метод для скачивания client.jar (если отсутствует) и затем скачивания и распаковки архивов.
+    // Все файлы (client.jar и части архивов всех групп) качаются параллельно через DownloadManager.
     private void downloadAndExtractArchives() {
         // Получаем текущий сервер
         Object selected = serverComboBox.getSelectedItem();
@@ -280,74 +301,42 @@ public class MainBottomPanel extends JPanel {
         }
         String serverName = selected.toString();
         File installDir = new File("version", serverName);
-        if (!installDir.exists()) {
-            installDir.mkdirs();
-            System.out.println("Создана директория установки: " + installDir.getAbsolutePath());
-        }
         File clientJar = new File(installDir, "client.jar");
         
-        // Скачиваем client.jar, если он отсутствует
-        if (!clientJar.exists()) {
-            System.out.println("Скачивание client.jar...");
-            Window window = SwingUtilities.getWindowAncestor(this);
-            if (window instanceof LauncherUI) {
-                LauncherUI launcher = (LauncherUI) window;
-                // Получаем конфигурацию сервера через публичный метод
-                com.launcher.ServerConfig sc = launcher.getServerConfigByNamePublic(serverName);
-                if (sc != null && sc.download_link != null && !sc.download_link.isEmpty()) {
-                    try {
-                        downloadFile(sc.download_link, clientJar);
-                        System.out.println("client.jar скачан в: " + clientJar.getAbsolutePath());
-                    } catch (IOException ex) {
-                        System.out.println("Ошибка при скачивании client.jar: " + ex.getMessage());
-                        ex.printStackTrace();
-                    }
-                } else {
-                    System.out.println("Не удалось найти URL для client.jar.");
-                }
+        // URL client.jar из конфигурации сервера; понадобится, если client.jar ещё нет
+        String configuredClientUrl = null;
+        // Режим распаковки из settings.txt: parallel – по центральному каталогу во всех ядрах после
+        // скачивания группы, stream – потоком прямо во время скачивания
+        String extractMode = Runtime.getRuntime().availableProcessors() >= 4 ? EXTRACT_PARALLEL : EXTRACT_STREAM;
+        // Ассеты: режим, адрес объектов по хешу (assets/objects/xx/<sha1>) и адрес индекса,
+        // если его ещё нет локально
+        String assetsMode = "archives";
+        String objectsUrl = AssetFetcher.DEFAULT_OBJECTS_URL;
+        String indexUrl = "";
+        String indexId = AssetIndex.DEFAULT_ID;
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (window instanceof LauncherUI) {
+            LauncherUI launcher = (LauncherUI) window;
+            extractMode = launcher.getSetting("extractMode", extractMode);
+            assetsMode = launcher.getSetting("assetsMode", assetsMode);
+            objectsUrl = launcher.getSetting("assetObjectsUrl", objectsUrl);
+            indexUrl = launcher.getSetting("assetIndexUrl", indexUrl);
+            // Получаем конфигурацию сервера через публичный метод
+            com.launcher.ServerConfig sc = launcher.getServerConfigByNamePublic(serverName);
+            if (sc != null && sc.download_link != null && !sc.download_link.isEmpty()) {
+                configuredClientUrl = sc.download_link;
             }
-        } else {
-            System.out.println("client.jar уже существует: " + clientJar.getAbsolutePath());
-        }
-        
-        // Если в корневой папке уже существуют папки assets и native – пропускаем скачивание архивов
-        File assetsFolder = new File("assets");
-        File nativeFolder = new File("native");
-        if (assetsFolder.exists() && assetsFolder.isDirectory() &&
-            nativeFolder.exists() && nativeFolder.isDirectory()) {
-            System.out.println("Папки assets и native уже существуют, пропускаем скачивание архивов.");
-            playButton.setEnabled(true);
-            updatePlayButtonText();
-            JOptionPane.showMessageDialog(null, "Установка завершена!");
-            return;
+            indexId = AssetIndex.idFor(sc);
         }
         
-        // Далее – скачивание и распаковка архивов
-        String[] archives = {
-            "assets.zip.001",
-            "assets.zip.002",
-            "assets.zip.003",
-            "assets.zip.004",
-            "lib.zip.001",
-            "lib.zip.002",
-            "native.zip.001"
-        };
-        
-        // Группируем по базовому имени (удаляем последний сегмент, например, ".001")
-        Map<String, List<String>> groups = new HashMap<>();
-        for (String archive : archives) {
-            int lastDot = archive.lastIndexOf('.');
-            if (lastDot > 0) {
-                String baseName = archive.substring(0, lastDot);
-                groups.computeIfAbsent(baseName, k -> new ArrayList<>()).add(archive);
-            }
-        }
-        
-        System.out.println("Найдено групп архивов: " + groups.keySet());
-        
-        int totalGroups = groups.size();
+        String clientJarUrl = configuredClientUrl;
+        boolean objectsMode = ASSETS_OBJECTS.equals(assetsMode);
+        String assetObjectsUrl = objectsUrl;
+        boolean parallelExtract = EXTRACT_PARALLEL.equals(extractMode);
+        String assetIndexUrl = indexUrl;
+        String assetIndexId = indexId;
         JDialog dlg = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Установка...", true);
-        JProgressBar bar = new JProgressBar(0, totalGroups);
+        JProgressBar bar = new JProgressBar(0, 100);
         bar.setStringPainted(true);
         dlg.add(bar);
         dlg.setSize(300, 100);
@@ -356,62 +345,184 @@ public class MainBottomPanel extends JPanel {
         new SwingWorker<Void, Integer>() {
             @Override
             protected Void doInBackground() throws Exception {
+                // Всё, что проверяет диск, делается здесь, а не в EDT: окно не замирает на время проверок
+                if (!installDir.exists()) {
+                    installDir.mkdirs();
+                    System.out.println("Создана директория установки: " + installDir.getAbsolutePath());
+                }
+                String clientUrl = null;
+                if (!clientJar.exists()) {
+                    clientUrl = clientJarUrl;
+                    if (clientUrl == null) {
+                        System.out.println("Не удалось найти URL для client.jar.");
+                    }
+                } else {
+                    System.out.println("client.jar уже существует: " + clientJar.getAbsolutePath());
+                }
+                
+                // Если в корневой папке уже существуют папки assets и native – пропускаем скачивание архивов,
+                // но проверяем объекты ассетов по индексу и докачиваем только отсутствующие и повреждённые.
+                // В режиме objects так же ставятся и новые ассеты – при наличии индекса архив assets не нужен
+                File assetsFolder = new File("assets");
+                File nativeFolder = new File("native");
+                AssetFetcher fetcher = new AssetFetcher(assetsFolder, assetObjectsUrl, HashCache.getDefault());
+                String[] archives = {};
+                boolean fetchObjects = false;
+                if (assetsFolder.exists() && assetsFolder.isDirectory() &&
+                    nativeFolder.exists() && nativeFolder.isDirectory()) {
+                    System.out.println("Папки assets и native уже существуют, пропускаем скачивание архивов.");
+                    fetchObjects = true;
+                } else {
+                    archives = ARCHIVES;
+                    if (objectsMode && (fetcher.indexFile(assetIndexId).isFile() || !assetIndexUrl.isEmpty())) {
+                        System.out.println("Ассеты будут скачаны по индексу, без архивов " + ASSETS_ARCHIVE);
+                        fetchObjects = true;
+                    }
+                }
+                
+                // Группируем по базовому имени (удаляем последний сегмент, например, ".001")
+                Map<String, List<String>> groups = new HashMap<>();
+                for (String archive : archives) {
+                    int lastDot = archive.lastIndexOf('.');
+                    if (lastDot > 0) {
+                        String baseName = archive.substring(0, lastDot);
+                        if (fetchObjects && ASSETS_ARCHIVE.equals(baseName)) {
+                            continue;
+                        }
+                        groups.computeIfAbsent(baseName, k -> new ArrayList<>()).add(archive);
+                    }
+                }
+                
+                System.out.println("Найдено групп архивов: " + groups.keySet());
+                
+                int totalGroups = groups.size();
+                boolean verifyAssets = fetchObjects;
+                // Ассетов ещё нет и архив не качается – без индекса установка невозможна
+                boolean assetsRequired = fetchObjects && archives.length > 0;
+                
                 File tempDir = new File("temp_downloads");
                 if (!tempDir.exists()) {
                     tempDir.mkdirs();
                     System.out.println("Создана временная папка: " + tempDir.getAbsolutePath());
                 }
                 
-                int groupCount = 0;
+                // Собираем все файлы для скачивания в один список
+                List<DownloadTask> tasks = new ArrayList<>();
+                ContentStore store = ContentStore.getDefault();
+                boolean clientDownload = false;
+                if (clientUrl != null) {
+                    // client.jar той же версии уже есть у другого сервера – ставим ссылку на него
+                    String stored = store.sha1ForUrl(clientUrl);
+                    if (stored != null && store.materialize(stored, clientJar)) {
+                        System.out.println("client.jar взят из общего хранилища");
+                    } else {
+                        System.out.println("Скачивание client.jar...");
+                        tasks.add(new DownloadTask(clientUrl, clientJar));
+                        clientDownload = true;
+                    }
+                }
+                List<AssetObject> missingAssets = new ArrayList<>();
+                if (verifyAssets) {
+                    try {
+                        AssetIndex index = fetcher.loadIndex(assetIndexId, assetIndexUrl);
+                        missingAssets = fetcher.findMissing(index);
+                        System.out.println("Проверка ассетов: отсутствует или повреждено объектов: " + missingAssets.size());
+                    } catch (IOException ex) {
+                        if (assetsRequired) {
+                            throw ex;
+                        }
+                        System.out.println("Не удалось проверить ассеты: " + ex.getMessage());
+                    }
+                    tasks.addAll(fetcher.tasks(missingAssets));
+                }
+                Map<String, List<DownloadTask>> groupParts = new LinkedHashMap<>();
                 for (Map.Entry<String, List<String>> entry : groups.entrySet()) {
                     String baseName = entry.getKey();
                     List<String> parts = entry.getValue();
                     parts.sort(Comparator.comparingInt(s -> Integer.parseInt(s.substring(s.lastIndexOf('.') + 1))));
                     System.out.println("Группа " + baseName + " состоит из частей: " + parts);
                     
-                    List<File> downloadedParts = new ArrayList<>();
+                    List<DownloadTask> partTasks = new ArrayList<>();
                     for (String part : parts) {
-                        String fileUrl = "https://raw.githubusercontent.com/qpov/QmLauncher/refs/heads/main/data/" + part;
-                        System.out.println("Начало скачивания: " + fileUrl);
-                        File partFile = new File(tempDir, part);
-                        downloadFile(fileUrl, partFile);
-                        System.out.println("Скачан файл: " + partFile.getAbsolutePath());
-                        downloadedParts.add(partFile);
+                        partTasks.add(new DownloadTask(DATA_BASE_URL + part, new File(tempDir, part)));
                     }
-                    
-                    File combinedZip = new File(tempDir, baseName + ".zip");
-                    try (FileOutputStream fos = new FileOutputStream(combinedZip)) {
-                        for (File partFile : downloadedParts) {
-                            try (FileInputStream fis = new FileInputStream(partFile)) {
-                                byte[] buffer = new byte[4096];
-                                int len;
-                                while ((len = fis.read(buffer)) > 0) {
-                                    fos.write(buffer, 0, len);
-                                }
-                            }
+                    tasks.addAll(partTasks);
+                    groupParts.put(baseName, partTasks);
+                }
+                
+                // Каждая группа распаковывается в своём потоке прямо из частей, без склейки в общий zip на диске:
+                // в режиме stream – по мере скачивания, в режиме parallel – как только скачаны все части группы
+                AtomicInteger downloadPercent = new AtomicInteger();
+                AtomicInteger groupsDone = new AtomicInteger();
+                ExecutorService extractors = Executors.newFixedThreadPool(Math.max(1, groupParts.size()));
+                ExecutorService inflaters = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+                List<Future<?>> extractions = new ArrayList<>();
+                for (Map.Entry<String, List<DownloadTask>> entry : groupParts.entrySet()) {
+                    String baseName = entry.getKey();
+                    List<DownloadTask> partTasks = entry.getValue();
+                    extractions.add(extractors.submit(() -> {
+                        List<CompletableFuture<File>> parts = new ArrayList<>();
+                        for (DownloadTask task : partTasks) {
+                            parts.add(task.completion);
                         }
-                    }
-                    System.out.println("Объединён файл: " + combinedZip.getAbsolutePath());
-                    
-                    System.out.println("Начало распаковки: " + combinedZip.getName());
-                    extractZip(combinedZip, new File("."));
-                    System.out.println("Распаковка завершена для: " + combinedZip.getName());
-                    
-                    for (File partFile : downloadedParts) {
-                        if (partFile.delete()) {
-                            System.out.println("Временный файл удалён: " + partFile.getName());
+                        int extracted;
+                        if (parallelExtract) {
+                            CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).join();
+                            List<File> partFiles = new ArrayList<>();
+                            for (DownloadTask task : partTasks) {
+                                partFiles.add(task.destination);
+                            }
+                            System.out.println("Начало параллельной распаковки: " + baseName);
+                            extracted = new ParallelZipExtractor(inflaters).extract(partFiles, new File("."));
                         } else {
-                            System.out.println("Не удалось удалить временный файл: " + partFile.getName());
+                            System.out.println("Начало распаковки: " + baseName);
+                            extracted = ZipExtractor.extract(new SplitArchiveInputStream(parts), new File("."));
+                        }
+                        System.out.println("Распаковка завершена для: " + baseName + ", файлов: " + extracted);
+                        
+                        for (DownloadTask task : partTasks) {
+                            File partFile = task.destination;
+                            if (partFile.delete()) {
+                                System.out.println("Временный файл удалён: " + partFile.getName());
+                            } else {
+                                System.out.println("Не удалось удалить временный файл: " + partFile.getName());
+                            }
                         }
+                        int count = groupsDone.incrementAndGet();
+                        publish(overallProgress(downloadPercent.get(), count, totalGroups));
+                        System.out.println("Распаковано групп: " + count + " из " + totalGroups);
+                        return null;
+                    }));
+                }
+                
+                try {
+                    int connections = missingAssets.isEmpty() ? DownloadManager.DEFAULT_CONNECTIONS : AssetFetcher.CONNECTIONS;
+                    new DownloadManager(connections).downloadAll(tasks, (done, total) -> {
+                        if (total > 0) {
+                            downloadPercent.set((int) (done * 100 / total));
+                            publish(overallProgress(downloadPercent.get(), groupsDone.get(), totalGroups));
+                        }
+                    });
+                    if (clientDownload) {
+                        store.adopt(clientJar, clientUrl);
+                        System.out.println("client.jar скачан в: " + clientJar.getAbsolutePath());
                     }
-                    if (combinedZip.delete()) {
-                        System.out.println("Объединённый архив удалён: " + combinedZip.getName());
-                    } else {
-                        System.out.println("Не удалось удалить объединённый архив: " + combinedZip.getName());
+                    if (!missingAssets.isEmpty() && !fetcher.verify(missingAssets).isEmpty()) {
+                        throw new IOException("Скачанные объекты ассетов не совпадают с индексом");
                     }
-                    
-                    groupCount++;
-                    publish(groupCount);
+                    for (Future<?> extraction : extractions) {
+                        try {
+                            extraction.get();
+                        } catch (ExecutionException ex) {
+                            if (ex.getCause() instanceof Exception) {
+                                throw (Exception) ex.getCause();
+                            }
+                            throw ex;
+                        }
+                    }
+                } finally {
+                    extractors.shutdownNow();
+                    inflaters.shutdownNow();
                 }
                 
                 if (tempDir.delete()) {
@@ -426,7 +537,6 @@ public class MainBottomPanel extends JPanel {
             protected void process(java.util.List<Integer> chunks) {
                 int progress = chunks.get(chunks.size() - 1);
                 bar.setValue(progress);
-                System.out.println("Прогресс: " + progress + " из " + totalGroups);
             }
 
             @Override
@@ -434,58 +544,23 @@ public class MainBottomPanel extends JPanel {
                 dlg.dispose();
                 playButton.setEnabled(true);
                 updatePlayButtonText();
-                System.out.println("Установка завершена!");
-                JOptionPane.showMessageDialog(null, "Установка завершена!");
+                try {
+                    get();
+                    System.out.println("Установка завершена!");
+                    JOptionPane.showMessageDialog(null, "Установка завершена!");
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Ошибка установки: " + ex.getMessage(),
+                            "Ошибка", JOptionPane.ERROR_MESSAGE);
+                }
             }
         }.execute();
         dlg.setVisible(true);
     }
     
-    // Метод для скачивания файла по URL в указанный File с логированием
-    private void downloadFile(String fileUrl, File destination) throws IOException {
-        URL url = new URL(fileUrl);
-        URLConnection connection = url.openConnection();
-        connection.setConnectTimeout(10000);
-        connection.setReadTimeout(10000);
-        try (InputStream in = connection.getInputStream();
-             FileOutputStream fos = new FileOutputStream(destination)) {
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = in.read(buffer)) != -1) {
-                fos.write(buffer, 0, bytesRead);
-            }
-        }
-        System.out.println("Файл скачан: " + destination.getName());
-    }
-    
-    // Метод для распаковки zip-архива в указанную директорию с логированием
-    private void extractZip(File zipFile, File targetDir) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                System.out.println("Распаковка записи: " + entry.getName());
-                File outFile = new File(targetDir, entry.getName());
-                if (entry.isDirectory()) {
-                    if (outFile.mkdirs()) {
-                        System.out.println("Создана директория: " + outFile.getAbsolutePath());
-                    }
-                } else {
-                    File parent = outFile.getParentFile();
-                    if (!parent.exists()) {
-                        parent.mkdirs();
-                        System.out.println("Созданы родительские директории для: " + outFile.getAbsolutePath());
-                    }
-                    try (FileOutputStream fos = new FileOutputStream(outFile)) {
-                        byte[] buffer = new byte[4096];
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-                        System.out.println("Файл распакован: " + outFile.getAbsolutePath());
-                    }
-                }
-                zis.closeEntry();
-            }
-        }
+    // Скачивание занимает первые 90% шкалы, распаковка групп – оставшиеся
+    private static int overallProgress(int downloadPercent, int groupsDone, int totalGroups) {
+        int extracted = totalGroups == 0 ? 0 : groupsDone * (100 - DOWNLOAD_PROGRESS_SHARE) / totalGroups;
+        return downloadPercent * DOWNLOAD_PROGRESS_SHARE / 100 + extracted;
     }
 }
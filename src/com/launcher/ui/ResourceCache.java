@@ -0,0 +1,113 @@
+package com.launcher.ui;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Общие шрифт и иконки интерфейса. Aptos-SemiBold.ttf разбирается один раз, размеры получаются
+ * через deriveFont и тоже запоминаются. Иконка масштабируется один раз на (путь, ширина, высота)
+ * и содержит варианты под масштаб всех экранов (125 %, 150 %, 200 %), чтобы на HiDPI не размываться.
+ */
+public final class ResourceCache {
+
+    public static final String SEMI_BOLD_FONT = "resources/fonts/Aptos-SemiBold.ttf";
+
+    private static Font semiBold;
+    private static boolean semiBoldLoaded;
+    private static final Map<Float, Font> FONTS = new HashMap<>();
+    private static final Map<String, ImageIcon> ICONS = new HashMap<>();
+
+    private ResourceCache() {
+    }
+
+    // Aptos SemiBold нужного размера; если шрифт не читается – жирный SansSerif
+    public static synchronized Font semiBoldFont(float size) {
+        Font font = FONTS.get(size);
+        if (font != null) {
+            return font;
+        }
+        if (!semiBoldLoaded) {
+            semiBoldLoaded = true;
+            try {
+                semiBold = Font.createFont(Font.TRUETYPE_FONT, new File(SEMI_BOLD_FONT));
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        }
+        font = semiBold != null ? semiBold.deriveFont(size) : new Font("SansSerif", Font.BOLD, (int) size);
+        FONTS.put(size, font);
+        return font;
+    }
+
+    // Иконка размером width x height в логических пикселях
+    public static synchronized ImageIcon icon(String path, int width, int height) {
+        String key = path + "@" + width + "x" + height;
+        ImageIcon icon = ICONS.get(key);
+        if (icon == null) {
+            icon = loadIcon(path, width, height);
+            ICONS.put(key, icon);
+        }
+        return icon;
+    }
+
+    private static ImageIcon loadIcon(String path, int width, int height) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new File(path));
+        } catch (IOException ex) {
+            source = null;
+        }
+        if (source == null) {
+            System.out.println("Не удалось загрузить иконку: " + path);
+            return new ImageIcon();
+        }
+        List<Image> variants = new ArrayList<>();
+        for (double scale : screenScales()) {
+            variants.add(scale(source, (int) Math.round(width * scale), (int) Math.round(height * scale)));
+        }
+        // Первый вариант (масштаб 1) задаёт логический размер иконки
+        return new ImageIcon(new BaseMultiResolutionImage(variants.toArray(new Image[0])));
+    }
+
+    // Масштабы всех экранов и всегда 1.0, по возрастанию
+    private static TreeSet<Double> screenScales() {
+        TreeSet<Double> scales = new TreeSet<>();
+        scales.add(1.0);
+        if (!GraphicsEnvironment.isHeadless()) {
+            for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+                scales.add(device.getDefaultConfiguration().getDefaultTransform().getScaleX());
+            }
+        }
+        return scales;
+    }
+
+    // Уменьшение в несколько шагов не больше чем вдвое: билинейная интерполяция без ступенек
+    // и намного быстрее SCALE_SMOOTH
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = next.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(current, 0, 0, w, h, null);
+            g2.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+}
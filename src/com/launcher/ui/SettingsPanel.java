@@ -1,17 +1,19 @@
 package com.launcher.ui;
 
-import com.launcher.ServerConfig;
 import com.launcher.ui.settings.SettingsGeneral;
+import com.launcher.ui.settings.SettingsLogs;
 import com.launcher.ui.settings.SettingsMods;
 import com.launcher.ui.settings.SettingsShaders;
 import com.launcher.ui.settings.SettingsResourcePacks;
 import com.launcher.ui.settings.SettingsSkin;
+import com.launcher.util.DirectoryWatcher;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
 
 public class SettingsPanel extends JPanel {
@@ -25,6 +27,10 @@ public class SettingsPanel extends JPanel {
     private SettingsShaders settingsShaders;
     private SettingsResourcePacks settingsResourcePacks;
     private SettingsSkin settingsSkin;
+
+    // Наблюдатель за папками выбранного сервера
+    private DirectoryWatcher watcher;
+    private String watchedServer;
     
     // Ссылка на родительское окно для получения выбранного сервера
     private JFrame owner;
@@ -37,7 +43,7 @@ public class SettingsPanel extends JPanel {
         // Навигационная панель с кнопками
         JPanel navBar = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
         navBar.setOpaque(false);
-        String[] tabs = { "Настройки", "Моды", "Шейдеры", "Ресурспаки", "Скин" };
+        String[] tabs = { "Настройки", "Моды", "Шейдеры", "Ресурспаки", "Скин", "Логи" };
         for (String tab : tabs) {
             JButton btn = new JButton(tab) {
                 @Override
@@ -58,22 +64,10 @@ public class SettingsPanel extends JPanel {
             btn.setContentAreaFilled(false);
             btn.setOpaque(false);
             btn.setForeground(Color.WHITE);
-            btn.setFont(loadSemiBoldFont(14f));
+            btn.setFont(ResourceCache.semiBoldFont(14f));
             btn.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
-            // При нажатии на кнопку переключения вкладки вызываем обновление соответствующей страницы
-            btn.addActionListener(e -> {
-                cardLayout.show(cardPanel, tab);
-                // Получаем текущий выбранный сервер из LauncherUI -> MainBottomPanel
-                String serverName = getCurrentServerName();
-                if (serverName == null) return;
-                if (tab.equals("Моды")) {
-                    settingsMods.updateModPanel(serverName);
-                } else if (tab.equals("Шейдеры")) {
-                    settingsShaders.updateShaderList(serverName);
-                } else if (tab.equals("Ресурспаки")) {
-                    settingsResourcePacks.updateResourcePackList(serverName);
-                }
-            });
+            // Списки модов, шейдеров и ресурспаков обновляет наблюдатель за папками – вкладку достаточно показать
+            btn.addActionListener(e -> cardLayout.show(cardPanel, tab));
             navBar.add(btn);
         }
         add(navBar, BorderLayout.NORTH);
@@ -90,53 +84,49 @@ public class SettingsPanel extends JPanel {
         settingsShaders = new SettingsShaders();
         settingsResourcePacks = new SettingsResourcePacks();
         settingsSkin = new SettingsSkin();
+        // Вывод последнего запуска игры из буфера LauncherUI
+        SettingsLogs logsPage = new SettingsLogs(
+                () -> owner instanceof LauncherUI ? ((LauncherUI) owner).getGameLogPump() : null);
 
         cardPanel.add(generalPage, "Настройки");
         cardPanel.add(settingsMods, "Моды");
         cardPanel.add(settingsShaders, "Шейдеры");
         cardPanel.add(settingsResourcePacks, "Ресурспаки");
         cardPanel.add(settingsSkin, "Скин");
+        cardPanel.add(logsPage, "Логи");
 
         cardLayout.show(cardPanel, "Настройки");
     }
     
-    // Метод для получения текущего выбранного сервера из LauncherUI
-    private String getCurrentServerName() {
-        if (owner instanceof LauncherUI) {
-            MainBottomPanel mbp = ((LauncherUI) owner).mainBottomPanel;
-            Object sel = mbp.serverComboBox.getSelectedItem();
-            return sel != null ? sel.toString() : null;
-        }
-        return null;
-    }
-
-    // Применяем выбранные моды
-    public void applyModSelection(ServerConfig selectedServer) {
-        if (settingsMods != null) {
-            settingsMods.applyModSelection(selectedServer);
-        }
+    // Отмеченные моды (имя файла -> включён); применяет их к папке вызывающий код в фоне
+    public Map<String, Boolean> getModSelection() {
+        return settingsMods.getModSelection();
     }
     
-    // Обновляем панели настроек для выбранного сервера:
-    // моды, шейдеры и ресурспаки.
+    // Переключаем панели настроек на выбранный сервер: моды, шейдеры и ресурспаки.
+    // Папки сервера читает наблюдатель в своём потоке; для того же сервера ничего не делаем –
+    // изменения на диске и так приходят событиями.
     public void updateModPanel(String serverName) {
-        if (settingsMods != null) {
-            settingsMods.updateModPanel(serverName);
+        if (watcher != null && serverName != null && serverName.equals(watchedServer)) {
+            return;
         }
-        if (settingsShaders != null) {
-            settingsShaders.updateShaderList(serverName);
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
         }
-        if (settingsResourcePacks != null) {
-            settingsResourcePacks.updateResourcePackList(serverName);
+        watchedServer = serverName;
+        if (serverName != null) {
+            watcher = new DirectoryWatcher(new File("version", serverName));
         }
-    }
-
-    private Font loadSemiBoldFont(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT, new File("resources/fonts/Aptos-SemiBold.ttf")).deriveFont(size);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return new Font("SansSerif", Font.BOLD, (int) size);
+        settingsMods.watch(serverName, watcher);
+        settingsShaders.watch(watcher);
+        settingsResourcePacks.watch(watcher);
+        if (watcher != null) {
+            try {
+                watcher.start();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
         }
     }
 }
@@ -0,0 +1,55 @@
+package com.launcher.ui;
+
+import com.launcher.launch.GameSupervisor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Небольшое полупрозрачное окно поверх игры с её загрузкой CPU, памятью и паузами GC.
+ * Показывается, пока игра запущена, если в настройках включено "Показывать нагрузку игры".
+ */
+public class TelemetryOverlay extends JWindow {
+
+    private static final int MARGIN = 10;
+
+    private final JLabel label = new JLabel("Ожидание данных...");
+
+    public TelemetryOverlay() {
+        setAlwaysOnTop(true);
+        setFocusableWindowState(false);
+        GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        if (device.isWindowTranslucencySupported(GraphicsDevice.WindowTranslucency.PERPIXEL_TRANSLUCENT)) {
+            setBackground(new Color(0, 0, 0, 160));
+        } else {
+            getContentPane().setBackground(Color.BLACK);
+        }
+
+        label.setForeground(Color.WHITE);
+        label.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        JPanel content = new JPanel(new BorderLayout());
+        content.setOpaque(false);
+        content.add(label, BorderLayout.CENTER);
+        getContentPane().add(content);
+        placeInCorner();
+    }
+
+    // Вызывается из потока замеров
+    public void update(GameSupervisor.Sample sample) {
+        String memory = sample.rssMb >= 0 ? sample.rssMb + " МБ" : "–";
+        String text = String.format(Locale.ROOT, "CPU %.0f%%  |  ОЗУ %s  |  GC: %d пауз, макс. %.0f мс",
+                sample.cpuPercent, memory, sample.gcPauses, sample.gcPauseMaxMs);
+        SwingUtilities.invokeLater(() -> {
+            label.setText(text);
+            placeInCorner();
+        });
+    }
+
+    // Правый верхний угол экрана
+    private void placeInCorner() {
+        pack();
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        setLocation(screen.x + screen.width - getWidth() - MARGIN, screen.y + MARGIN);
+    }
+}
@@ -3,7 +3,6 @@ package com.launcher.ui;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
 
 public class TitleBarPanel extends JPanel {
 
@@ -24,7 +23,7 @@ public class TitleBarPanel extends JPanel {
         setPreferredSize(new Dimension(parent.getWidth(), 30));
         setBackground(Color.BLACK); // задаём чёрный фон
 
-        Font semiBoldFont = loadSemiBoldFont(14f);
+        Font semiBoldFont = ResourceCache.semiBoldFont(14f);
 
         // Левая панель
         leftPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 5));
@@ -81,10 +80,10 @@ public class TitleBarPanel extends JPanel {
             launcherLabel.setText("QmLauncher | Настройки");
             leftPanel.add(launcherLabel);
             // Добавляем кнопку "Назад" с иконкой
-            ImageIcon backIcon = loadScaledIcon("resources/img/back.png", 16, 16);
+            ImageIcon backIcon = ResourceCache.icon("resources/img/back.png", 16, 16);
             JButton backButton = new JButton("Назад", backIcon);
             backButton.setRolloverEnabled(false);
-            makeFullyTransparentButton(backButton, loadSemiBoldFont(14f));
+            makeFullyTransparentButton(backButton, ResourceCache.semiBoldFont(14f));
             backButton.addActionListener(e -> backAction.run());
             leftPanel.add(backButton);
         } else {
@@ -114,7 +113,7 @@ public class TitleBarPanel extends JPanel {
     }
 
     private JButton createTransparentIconButton(String path, int w, int h) {
-        ImageIcon icon = loadScaledIcon(path, w, h);
+        ImageIcon icon = ResourceCache.icon(path, w, h);
         JButton btn = new JButton(icon);
         btn.setOpaque(false);
         btn.setContentAreaFilled(false);
@@ -135,24 +134,4 @@ public class TitleBarPanel extends JPanel {
         btn.setFont(font);
         btn.setForeground(Color.WHITE);
     }
-
-    private ImageIcon loadScaledIcon(String path, int width, int height) {
-        ImageIcon icon = new ImageIcon(path);
-        if(icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0){
-            System.err.println("Не удалось загрузить иконку: " + path);
-            return icon;
-        }
-        Image scaled = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
-    }
-
-    private Font loadSemiBoldFont(float size) {
-        try {
-            return Font.createFont(Font.TRUETYPE_FONT, new File("resources/fonts/Aptos-SemiBold.ttf"))
-                       .deriveFont(size);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            return new Font("SansSerif", Font.BOLD, (int) size);
-        }
-    }
 }
@@ -1,5 +1,8 @@
 package com.launcher.ui.settings;
 
+import com.launcher.launch.JvmProfile;
+import com.launcher.util.LauncherExecutor;
+
 import javax.swing.*;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.DocumentFilter;
@@ -59,6 +62,32 @@ public class SettingsGeneral extends JPanel {
         // Добавляем строку "Макс. ОЗУ" в панель
         add(ramPanel);
 
+        // ------------------ Строка "Профиль JVM" ------------------
+        JPanel profilePanel = new JPanel();
+        profilePanel.setLayout(new BoxLayout(profilePanel, BoxLayout.X_AXIS));
+        profilePanel.setOpaque(false);
+        profilePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        JLabel profileLabel = new JLabel("Профиль JVM:");
+        profileLabel.setForeground(Color.WHITE);
+        profilePanel.add(profileLabel);
+        profilePanel.add(Box.createHorizontalStrut(5));
+
+        // Сборщик мусора и параметры кучи подбираются по памяти и числу ядер компьютера
+        JComboBox<JvmProfile> profileComboBox = new JComboBox<>(JvmProfile.values());
+        profileComboBox.setSelectedItem(JvmProfile.fromName(settings.getProperty("jvmProfile")));
+        profileComboBox.setMaximumSize(profileComboBox.getPreferredSize());
+        profileComboBox.setBackground(Color.BLACK);
+        profileComboBox.setForeground(Color.WHITE);
+        profileComboBox.addActionListener(e -> {
+            JvmProfile profile = (JvmProfile) profileComboBox.getSelectedItem();
+            settings.setProperty("jvmProfile", profile.name());
+            saveSettings();
+        });
+        profilePanel.add(profileComboBox);
+
+        add(profilePanel);
+
         // ------------------ Вторая строка (Скрывать лаунчер) ------------------
         JPanel checkboxPanel = new JPanel();
         checkboxPanel.setLayout(new BoxLayout(checkboxPanel, BoxLayout.X_AXIS));
@@ -82,16 +111,66 @@ public class SettingsGeneral extends JPanel {
 
         // Добавляем строку с чекбоксом сразу под строкой "Макс. ОЗУ"
         add(checkboxPanel);
+
+        // ------------------ Третья строка (Быстрый запуск) ------------------
+        JPanel fastStartPanel = new JPanel();
+        fastStartPanel.setLayout(new BoxLayout(fastStartPanel, BoxLayout.X_AXIS));
+        fastStartPanel.setOpaque(false);
+        fastStartPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        // Архив классов игры (AppCDS): первый запуск создаёт его, следующие запускаются быстрее
+        JCheckBox fastStartCheckBox = new JCheckBox(
+                "Быстрый запуск игры",
+                Boolean.parseBoolean(settings.getProperty("fastStart", "false"))
+        );
+        fastStartCheckBox.setOpaque(false);
+        fastStartCheckBox.setForeground(Color.WHITE);
+        fastStartCheckBox.setBorder(BorderFactory.createEmptyBorder());
+        fastStartCheckBox.setToolTipText("Первый запуск создаёт архив классов игры, следующие запуски используют его");
+
+        fastStartCheckBox.addActionListener(e -> {
+            settings.setProperty("fastStart", Boolean.toString(fastStartCheckBox.isSelected()));
+            saveSettings();
+        });
+        fastStartPanel.add(fastStartCheckBox);
+
+        add(fastStartPanel);
+
+        // ------------------ Строка "Показывать нагрузку игры" ------------------
+        JPanel telemetryPanel = new JPanel();
+        telemetryPanel.setLayout(new BoxLayout(telemetryPanel, BoxLayout.X_AXIS));
+        telemetryPanel.setOpaque(false);
+        telemetryPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        // Окно поверх игры с загрузкой CPU, памятью и паузами GC
+        JCheckBox telemetryCheckBox = new JCheckBox(
+                "Показывать нагрузку игры",
+                Boolean.parseBoolean(settings.getProperty("gameTelemetry", "false"))
+        );
+        telemetryCheckBox.setOpaque(false);
+        telemetryCheckBox.setForeground(Color.WHITE);
+        telemetryCheckBox.setBorder(BorderFactory.createEmptyBorder());
+
+        telemetryCheckBox.addActionListener(e -> {
+            settings.setProperty("gameTelemetry", Boolean.toString(telemetryCheckBox.isSelected()));
+            saveSettings();
+        });
+        telemetryPanel.add(telemetryCheckBox);
+
+        add(telemetryPanel);
     }
 
+    // Файл пишется в фоне: клик по галочке не ждёт диска, а частые изменения дают одну запись
     private void saveSettings() {
-        File file = new File("settings.txt");
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            settings.store(fos, "Launcher Settings");
-            fos.flush();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        LauncherExecutor.coalesce("settings.txt", () -> {
+            File file = new File("settings.txt");
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                settings.store(fos, "Launcher Settings");
+                fos.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
     }
 
     // Фильтр для ввода только цифр
@@ -0,0 +1,96 @@
+package com.launcher.ui.settings;
+
+import com.launcher.launch.GameLogPump;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SettingsLogs extends JPanel {
+    // Как часто забирать новые строки из буфера игры
+    private static final int REFRESH_MS = 500;
+
+    private final Supplier<GameLogPump> pumpSupplier;
+    private final JTextArea logArea;
+    private final Timer refreshTimer;
+
+    private GameLogPump shownPump;
+    private long nextLine;
+
+    public SettingsLogs(Supplier<GameLogPump> pumpSupplier) {
+        this.pumpSupplier = pumpSupplier;
+        setLayout(new BorderLayout());
+        setOpaque(false);
+        setBackground(new Color(0, 0, 0, 0));
+
+        JLabel title = new JLabel("Вывод игры");
+        title.setForeground(Color.WHITE);
+        title.setHorizontalAlignment(SwingConstants.CENTER);
+        add(title, BorderLayout.NORTH);
+
+        logArea = new JTextArea("Игра ещё не запускалась.");
+        logArea.setEditable(false);
+        logArea.setForeground(Color.WHITE);
+        logArea.setBackground(new Color(0, 0, 0, 0));
+        logArea.setOpaque(false);
+        logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(logArea);
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        scrollPane.setBorder(null);
+        add(scrollPane, BorderLayout.CENTER);
+
+        // Обновляем только пока вкладка на экране
+        refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+        addHierarchyListener(e -> {
+            if (isShowing()) {
+                refresh();
+                refreshTimer.start();
+            } else {
+                refreshTimer.stop();
+            }
+        });
+    }
+
+    private void refresh() {
+        GameLogPump pump = pumpSupplier.get();
+        if (pump == null) {
+            return;
+        }
+        if (pump != shownPump) {
+            // Новый запуск игры – начинаем с чистого листа
+            shownPump = pump;
+            nextLine = 0;
+            logArea.setText("");
+        }
+        List<String> lines = new ArrayList<>();
+        nextLine = pump.linesSince(nextLine, lines);
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        logArea.append(sb.toString());
+        trimToCapacity();
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+    }
+
+    // В окне держим не больше строк, чем в буфере игры
+    private void trimToCapacity() {
+        Element root = logArea.getDocument().getDefaultRootElement();
+        int extra = root.getElementCount() - GameLogPump.DEFAULT_CAPACITY;
+        if (extra > 0) {
+            try {
+                logArea.getDocument().remove(0, root.getElement(extra - 1).getEndOffset());
+            } catch (BadLocationException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+}
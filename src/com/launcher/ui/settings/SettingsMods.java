@@ -1,17 +1,38 @@
 package com.launcher.ui.settings;
 
-import com.launcher.ServerConfig;
+import com.launcher.mods.ModIndex;
+import com.launcher.mods.ModInfo;
+import com.launcher.mods.ModProfiles;
+import com.launcher.mods.ModStateEngine;
+import com.launcher.util.ContentStore;
+import com.launcher.util.DirectoryWatcher;
+import com.launcher.util.HashCache;
+import com.launcher.util.LauncherExecutor;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class SettingsMods extends JPanel {
 
+    private static final Color DUPLICATE_COLOR = new Color(255, 170, 60);
+    private static final String MOD_KEY = "mod";
+    private static final String ENABLED_KEY = "enabledOnDisk";
+
     private JPanel modPanel;
     private JButton toggleAllButton;
+    private JComboBox<String> profileBox;
+    private String currentServer;
+    private DirectoryWatcher watcher;
+    // Не переключать профиль, пока список заполняется программно
+    private boolean updatingProfiles;
 
     public SettingsMods() {
         setLayout(new BorderLayout());
@@ -73,6 +94,25 @@ public class SettingsMods extends JPanel {
         title.setForeground(Color.WHITE);
         title.setHorizontalAlignment(SwingConstants.CENTER);
         headerPanel.add(title, BorderLayout.CENTER);
+
+        // Профили модов справа: выбор в списке сразу переключает набор модов
+        JPanel profilePanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 4, 0));
+        profilePanel.setOpaque(false);
+        profileBox = new JComboBox<>();
+        profileBox.setToolTipText("Профиль модов");
+        profileBox.addActionListener(e -> {
+            if (!updatingProfiles && profileBox.getSelectedItem() != null) {
+                switchProfile((String) profileBox.getSelectedItem());
+            }
+        });
+        JButton saveProfileButton = createHeaderButton("Сохранить как…");
+        saveProfileButton.addActionListener(e -> saveProfile());
+        JButton deleteProfileButton = createHeaderButton("Удалить");
+        deleteProfileButton.addActionListener(e -> deleteProfile());
+        profilePanel.add(profileBox);
+        profilePanel.add(saveProfileButton);
+        profilePanel.add(deleteProfileButton);
+        headerPanel.add(profilePanel, BorderLayout.EAST);
         
         add(headerPanel, BorderLayout.NORTH);
 
@@ -87,55 +127,135 @@ public class SettingsMods extends JPanel {
         add(scrollPane, BorderLayout.CENTER);
     }
 
-    // Обновление списка модов для выбранного сервера.
-    public void updateModPanel(String serverName) {
+    // Список модов выбранного сервера: наблюдатель читает папки mods и mods/disabled в своём потоке,
+    // имена и версии берутся из индекса модов, а панель меняется по одному моду.
+    // Моды с одинаковым id подсвечиваются как дубликаты.
+    public void watch(String serverName, DirectoryWatcher watcher) {
+        currentServer = serverName;
+        this.watcher = watcher;
+        updateProfileBox();
         modPanel.removeAll();
-        if (serverName == null) {
-            modPanel.revalidate();
-            modPanel.repaint();
+        refreshModPanel();
+        if (watcher == null) {
             return;
         }
-        File installDir = new File("version", serverName);
-        File modsFolder = new File(installDir, "mods");
-        List<String> enabledMods = new ArrayList<>();
-        List<String> disabledMods = new ArrayList<>();
-        if (modsFolder.exists()) {
-            // Получаем включённые моды: файлы, лежащие непосредственно в папке mods
-            File[] files = modsFolder.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
-            if (files != null) {
-                for (File f : files) {
-                    enabledMods.add(f.getName());
+        // Включённые моды лежат непосредственно в папке mods, отключённые – в mods/disabled
+        File modsFolder = new File(new File("version", serverName), "mods");
+        watchMods(watcher, modsFolder, "mods", true);
+        watchMods(watcher, new File(modsFolder, "disabled"), "mods/disabled", false);
+    }
+
+    // Jar читается в потоке наблюдателя, в EDT попадает уже готовый ModInfo
+    private void watchMods(DirectoryWatcher source, File dir, String relativeDir, boolean enabled) {
+        source.watch(relativeDir, name -> name.toLowerCase(Locale.ROOT).endsWith(".jar"), new DirectoryWatcher.Listener() {
+            @Override
+            public void reset(List<String> names) {
+                ModIndex index = ModIndex.getDefault();
+                List<ModInfo> mods = new ArrayList<>();
+                for (String name : names) {
+                    ModInfo info = index.get(new File(dir, name));
+                    if (info != null) {
+                        mods.add(info);
+                    }
                 }
+                index.save();
+                onEdt(source, () -> mods.forEach(mod -> putModCheckBox(mod, enabled)));
             }
-            // Убедимся, что папка отключённых модов "disabled" существует
-            File disabledFolder = new File(modsFolder, "disabled");
-            if (!disabledFolder.exists()) {
-                disabledFolder.mkdirs();
+
+            @Override
+            public void added(String name) {
+                changed(name);
             }
-            // Получаем отключённые моды из папки "disabled"
-            File[] disFiles = disabledFolder.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
-            if (disFiles != null) {
-                for (File f : disFiles) {
-                    disabledMods.add(f.getName());
+
+            @Override
+            public void changed(String name) {
+                // Пока файл копируется, jar может не читаться – он обновится со следующим событием
+                ModInfo info = ModIndex.getDefault().get(new File(dir, name));
+                if (info != null) {
+                    onEdt(source, () -> putModCheckBox(info, enabled));
                 }
             }
+
+            @Override
+            public void removed(String name) {
+                onEdt(source, () -> {
+                    JCheckBox cb = findModCheckBox(name, enabled);
+                    if (cb != null) {
+                        modPanel.remove(cb);
+                    }
+                });
+            }
+        });
+    }
+
+    // События старого наблюдателя (другого сервера) отбрасываются
+    private void onEdt(DirectoryWatcher source, Runnable update) {
+        SwingUtilities.invokeLater(() -> {
+            if (watcher == source) {
+                update.run();
+                refreshModPanel();
+            }
+        });
+    }
+
+    // Добавляет мод в свою секцию по алфавиту; у уже показанного мода обновляется описание, галочка остаётся
+    private void putModCheckBox(ModInfo mod, boolean enabled) {
+        JCheckBox existing = findModCheckBox(mod.fileName, enabled);
+        if (existing != null) {
+            existing.putClientProperty(MOD_KEY, mod);
+            return;
         }
-        if (!enabledMods.isEmpty() || !disabledMods.isEmpty()) {
-            // Сначала добавляем включённые моды
-            for (String modName : enabledMods) {
-                JCheckBox cb = new JCheckBox(modName, true);
-                cb.setOpaque(false);
-                cb.setForeground(Color.WHITE);
-                modPanel.add(cb);
+        int index = 0;
+        for (Component comp : modPanel.getComponents()) {
+            if (comp instanceof JCheckBox) {
+                JCheckBox cb = (JCheckBox) comp;
+                boolean cbEnabled = Boolean.TRUE.equals(cb.getClientProperty(ENABLED_KEY));
+                if ((enabled && !cbEnabled) || (cbEnabled == enabled && cb.getActionCommand().compareTo(mod.fileName) > 0)) {
+                    break;
+                }
             }
-            // Затем добавляем отключённые моды
-            for (String modName : disabledMods) {
-                JCheckBox cb = new JCheckBox(modName, false);
-                cb.setOpaque(false);
-                cb.setForeground(Color.WHITE);
-                modPanel.add(cb);
+            index++;
+        }
+        modPanel.add(createModCheckBox(mod, enabled), index);
+    }
+
+    private JCheckBox findModCheckBox(String fileName, boolean enabled) {
+        for (Component comp : modPanel.getComponents()) {
+            if (comp instanceof JCheckBox) {
+                JCheckBox cb = (JCheckBox) comp;
+                if (cb.getActionCommand().equals(fileName) && Boolean.valueOf(enabled).equals(cb.getClientProperty(ENABLED_KEY))) {
+                    return cb;
+                }
+            }
+        }
+        return null;
+    }
+
+    // После изменения списка: подпись "нет модов", подсветка дубликатов и текст кнопки
+    private void refreshModPanel() {
+        List<JCheckBox> boxes = new ArrayList<>();
+        List<ModInfo> enabledMods = new ArrayList<>();
+        for (Component comp : modPanel.getComponents()) {
+            if (comp instanceof JCheckBox) {
+                JCheckBox cb = (JCheckBox) comp;
+                boxes.add(cb);
+                if (Boolean.TRUE.equals(cb.getClientProperty(ENABLED_KEY))) {
+                    enabledMods.add((ModInfo) cb.getClientProperty(MOD_KEY));
+                }
+            } else {
+                modPanel.remove(comp);
             }
-        } else {
+        }
+        // Дубликаты ищем только среди включённых: игра загрузит их одновременно
+        Set<String> duplicateIds = ModIndex.duplicates(enabledMods).keySet();
+        boolean allSelected = true;
+        for (JCheckBox cb : boxes) {
+            ModInfo mod = (ModInfo) cb.getClientProperty(MOD_KEY);
+            boolean enabled = Boolean.TRUE.equals(cb.getClientProperty(ENABLED_KEY));
+            decorateModCheckBox(cb, mod, enabled && duplicateIds.contains(mod.id));
+            allSelected &= cb.isSelected();
+        }
+        if (boxes.isEmpty() && currentServer != null) {
             JLabel noMods = new JLabel("Нет установленных модов.");
             noMods.setForeground(Color.WHITE);
             noMods.setOpaque(false);
@@ -143,47 +263,187 @@ public class SettingsMods extends JPanel {
         }
         modPanel.revalidate();
         modPanel.repaint();
-        // Определяем, все ли моды включены
-        boolean allSelected = true;
-        for (Component comp : modPanel.getComponents()) {
-            if (comp instanceof JCheckBox) {
-                if (!((JCheckBox) comp).isSelected()) {
-                    allSelected = false;
-                    break;
-                }
+        toggleAllButton.setText(allSelected ? "Выключить все моды" : "Включить все моды");
+    }
+
+    // Общие кеши при первом обращении читаются с диска, поэтому вызывается только из фоновых задач
+    private static ModProfiles profiles(String server) {
+        return new ModProfiles(new File("version", server), ContentStore.getDefault(), HashCache.getDefault());
+    }
+
+    // Список профилей читается в фоне; ответ для уже не выбранного сервера отбрасывается
+    private void updateProfileBox() {
+        String server = currentServer;
+        if (server == null) {
+            setProfiles(Collections.emptyList(), null);
+            return;
+        }
+        LauncherExecutor.run(() -> {
+            ModProfiles profiles = profiles(server);
+            ProfileState state = new ProfileState();
+            state.names = profiles.list();
+            state.active = profiles.active();
+            return state;
+        }, state -> {
+            if (server.equals(currentServer)) {
+                setProfiles(state.names, state.active);
+            }
+        });
+    }
+
+    private static class ProfileState {
+        List<String> names;
+        String active;
+    }
+
+    private void setProfiles(List<String> names, String active) {
+        updatingProfiles = true;
+        try {
+            profileBox.removeAllItems();
+            for (String name : names) {
+                profileBox.addItem(name);
+            }
+            profileBox.setSelectedItem(active);
+            if (active == null) {
+                profileBox.setSelectedIndex(-1);
             }
+        } finally {
+            updatingProfiles = false;
         }
-        toggleAllButton.setText(allSelected ? "Выключить все моды" : "Включить все моды");
     }
 
-    // Применение выбранных настроек: если мод отключён (чекбокс не выбран), перемещаем файл в папку "disabled", иначе – обратно.
-    public void applyModSelection(ServerConfig selectedServer) {
-        if (selectedServer == null) return;
-        File installDir = new File("version", selectedServer.name);
-        File modsFolder = new File(installDir, "mods");
-        if (!modsFolder.exists()) {
-            modsFolder.mkdirs();
+    // Переключение идёт в фоне; новые моды в списке появятся по событиям наблюдателя за папкой
+    private void switchProfile(String name) {
+        if (currentServer == null) {
+            return;
+        }
+        String server = currentServer;
+        profileBox.setEnabled(false);
+        LauncherExecutor.run(() -> {
+            ModProfiles profiles = profiles(server);
+            if (!name.equals(profiles.active())) {
+                profiles.activate(name);
+            }
+            return null;
+        }, done -> {
+            profileBox.setEnabled(true);
+            updateProfileBox();
+        }, ex -> {
+            ex.printStackTrace();
+            profileBox.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Не удалось переключить профиль: " + ex.getMessage(),
+                    "Профили модов", JOptionPane.ERROR_MESSAGE);
+            updateProfileBox();
+        });
+    }
+
+    private void saveProfile() {
+        if (currentServer == null) {
+            return;
+        }
+        String name = (String) JOptionPane.showInputDialog(this, "Имя профиля:", "Профили модов",
+                JOptionPane.PLAIN_MESSAGE, null, null, profileBox.getSelectedItem() != null ? profileBox.getSelectedItem() : "");
+        if (name == null) {
+            return;
+        }
+        String profileName = name.trim();
+        if (!ModProfiles.isValidName(profileName)) {
+            JOptionPane.showMessageDialog(this, "Недопустимое имя профиля: " + profileName,
+                    "Профили модов", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        // Сохраняется то, что лежит в mods, поэтому сначала применяем отмеченные галочки
+        Map<String, Boolean> selection = getModSelection();
+        File modsFolder = new File(new File("version", currentServer), "mods");
+        String server = currentServer;
+        LauncherExecutor.run(() -> {
+            List<ModStateEngine.Failure> failures = new ModStateEngine(modsFolder).apply(selection).failures;
+            profiles(server).save(profileName);
+            return failures;
+        }, failures -> {
+            if (!failures.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Не удалось перенести моды:\n" + failures,
+                        "Профили модов", JOptionPane.WARNING_MESSAGE);
+            }
+            updateProfileBox();
+        }, ex -> {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Не удалось сохранить профиль: " + ex.getMessage(),
+                    "Профили модов", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void deleteProfile() {
+        String name = (String) profileBox.getSelectedItem();
+        if (currentServer == null || name == null) {
+            return;
         }
-        File disabledFolder = new File(modsFolder, "disabled");
-        if (!disabledFolder.exists()) {
-            disabledFolder.mkdirs();
+        int answer = JOptionPane.showConfirmDialog(this, "Удалить профиль " + name + "? Моды в папке mods останутся.",
+                "Профили модов", JOptionPane.YES_NO_OPTION);
+        if (answer != JOptionPane.YES_OPTION) {
+            return;
         }
+        String server = currentServer;
+        LauncherExecutor.run(() -> {
+            profiles(server).delete(name);
+            return null;
+        }, done -> updateProfileBox(), ex -> {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Не удалось удалить профиль: " + ex.getMessage(),
+                    "Профили модов", JOptionPane.ERROR_MESSAGE);
+            updateProfileBox();
+        });
+    }
+
+    // Кнопка в заголовке с полупрозрачным фоном, как у "Включить все моды"
+    private static JButton createHeaderButton(String text) {
+        JButton button = new JButton(text) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g.create();
+                g2d.setColor(new Color(0, 0, 0, 128));
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 8, 8);
+                g2d.dispose();
+                super.paintComponent(g);
+            }
+        };
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setRolloverEnabled(false);
+        button.setContentAreaFilled(false);
+        button.setOpaque(false);
+        button.setBorder(BorderFactory.createEmptyBorder(2, 6, 2, 6));
+        return button;
+    }
+
+    // Имя файла мода хранится в actionCommand – текст чекбокса только для показа;
+    // ModInfo и папка, в которой лежит мод, – в client properties
+    private JCheckBox createModCheckBox(ModInfo mod, boolean enabled) {
+        JCheckBox cb = new JCheckBox("", enabled);
+        cb.setActionCommand(mod.fileName);
+        cb.putClientProperty(MOD_KEY, mod);
+        cb.putClientProperty(ENABLED_KEY, enabled);
+        cb.setOpaque(false);
+        return cb;
+    }
+
+    private static void decorateModCheckBox(JCheckBox cb, ModInfo mod, boolean duplicate) {
+        String text = mod.isMod() ? mod.displayName() + " (" + mod.fileName + ")" : mod.fileName;
+        cb.setText(duplicate ? text + " – дубликат" : text);
+        cb.setForeground(duplicate ? DUPLICATE_COLOR : Color.WHITE);
+        cb.setToolTipText(duplicate ? "Мод " + mod.id + " установлен несколько раз – оставьте включённым один файл" : null);
+    }
+
+    // Выбранные галочки: имя файла мода -> должен ли он быть включён. Применяет их ModStateEngine в фоне:
+    // отключённые моды переносятся в папку "disabled", включённые – обратно, и только изменившиеся.
+    public Map<String, Boolean> getModSelection() {
+        Map<String, Boolean> desired = new LinkedHashMap<>();
         for (Component comp : modPanel.getComponents()) {
             if (comp instanceof JCheckBox) {
                 JCheckBox cb = (JCheckBox) comp;
-                String modFileName = cb.getText();
-                File modFile = new File(modsFolder, modFileName);
-                File disabledFile = new File(disabledFolder, modFileName);
-                if (!cb.isSelected()) {
-                    if (modFile.exists()) {
-                        modFile.renameTo(disabledFile);
-                    }
-                } else {
-                    if (disabledFile.exists()) {
-                        disabledFile.renameTo(modFile);
-                    }
-                }
+                desired.put(cb.getActionCommand(), cb.isSelected());
             }
         }
+        return desired;
     }
 }
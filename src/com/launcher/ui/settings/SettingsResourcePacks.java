@@ -1,12 +1,13 @@
 package com.launcher.ui.settings;
 
+import com.launcher.util.DirectoryWatcher;
+
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
 
 public class SettingsResourcePacks extends JPanel {
     private JList<String> resourcePackList;
-    private DefaultListModel<String> listModel;
+    private WatchedListModel listModel;
 
     public SettingsResourcePacks() {
         setLayout(new BorderLayout());
@@ -18,7 +19,7 @@ public class SettingsResourcePacks extends JPanel {
         title.setHorizontalAlignment(SwingConstants.CENTER);
         add(title, BorderLayout.NORTH);
 
-        listModel = new DefaultListModel<>();
+        listModel = new WatchedListModel("Нет установленных ресурспаков.");
         resourcePackList = new JList<>(listModel);
         resourcePackList.setForeground(Color.WHITE);
         resourcePackList.setBackground(new Color(0, 0, 0, 0));
@@ -30,23 +31,8 @@ public class SettingsResourcePacks extends JPanel {
         add(scrollPane, BorderLayout.CENTER);
     }
 
-    // Обновление списка ресурспаков из папки resourcepacks выбранного сервера.
-    public void updateResourcePackList(String serverName) {
-        listModel.clear();
-        if (serverName == null) return;
-        File installDir = new File("version", serverName);
-        File resourceDir = new File(installDir, "resourcepacks");
-        if (resourceDir.exists() && resourceDir.isDirectory()) {
-            File[] files = resourceDir.listFiles();
-            if (files != null && files.length > 0) {
-                for (File f : files) {
-                    listModel.addElement(f.getName());
-                }
-            } else {
-                listModel.addElement("Нет установленных ресурспаков.");
-            }
-        } else {
-            listModel.addElement("Нет установленных ресурспаков.");
-        }
+    // Список ресурспаков из папки resourcepacks выбранного сервера; дальше он обновляется по событиям наблюдателя.
+    public void watch(DirectoryWatcher watcher) {
+        listModel.attach(watcher, "resourcepacks");
     }
 }
@@ -1,12 +1,13 @@
 package com.launcher.ui.settings;
 
+import com.launcher.util.DirectoryWatcher;
+
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
 
 public class SettingsShaders extends JPanel {
     private JList<String> shaderList;
-    private DefaultListModel<String> listModel;
+    private WatchedListModel listModel;
 
     public SettingsShaders() {
         setLayout(new BorderLayout());
@@ -18,7 +19,7 @@ public class SettingsShaders extends JPanel {
         title.setHorizontalAlignment(SwingConstants.CENTER);
         add(title, BorderLayout.NORTH);
 
-        listModel = new DefaultListModel<>();
+        listModel = new WatchedListModel("Нет установленных шейдеров.");
         shaderList = new JList<>(listModel);
         shaderList.setForeground(Color.WHITE);
         shaderList.setBackground(new Color(0, 0, 0, 0)); // прозрачный фон
@@ -30,23 +31,8 @@ public class SettingsShaders extends JPanel {
         add(scrollPane, BorderLayout.CENTER);
     }
 
-    // Обновление списка шейдеров из папки shaderpacks выбранного сервера.
-    public void updateShaderList(String serverName) {
-        listModel.clear();
-        if (serverName == null) return;
-        File installDir = new File("version", serverName);
-        File shaderDir = new File(installDir, "shaderpacks");
-        if (shaderDir.exists() && shaderDir.isDirectory()) {
-            File[] files = shaderDir.listFiles();
-            if (files != null && files.length > 0) {
-                for (File f : files) {
-                    listModel.addElement(f.getName());
-                }
-            } else {
-                listModel.addElement("Нет установленных шейдеров.");
-            }
-        } else {
-            listModel.addElement("Нет установленных шейдеров.");
-        }
+    // Список шейдеров из папки shaderpacks выбранного сервера; дальше он обновляется по событиям наблюдателя.
+    public void watch(DirectoryWatcher watcher) {
+        listModel.attach(watcher, "shaderpacks");
     }
 }
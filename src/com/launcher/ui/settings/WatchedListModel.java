@@ -0,0 +1,81 @@
+package com.launcher.ui.settings;
+
+import com.launcher.util.DirectoryWatcher;
+
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * Модель списка файлов папки, которую обновляет DirectoryWatcher: события переносятся в EDT,
+ * элементы добавляются и удаляются по одному с сохранением сортировки.
+ * Если файлов нет, в списке показывается строка emptyText.
+ */
+public class WatchedListModel extends DefaultListModel<String> {
+
+    private final String emptyText;
+    // Наблюдатель, события которого сейчас показываются; события старого наблюдателя отбрасываются
+    private DirectoryWatcher current;
+
+    public WatchedListModel(String emptyText) {
+        this.emptyText = emptyText;
+        addElement(emptyText);
+    }
+
+    // Подписывает модель на папку relativeDir сервера; watcher == null – сервер не выбран
+    public void attach(DirectoryWatcher watcher, String relativeDir) {
+        current = watcher;
+        clear();
+        addElement(emptyText);
+        if (watcher == null) {
+            return;
+        }
+        watcher.watch(relativeDir, name -> !name.startsWith("."), new DirectoryWatcher.Listener() {
+            @Override
+            public void reset(List<String> names) {
+                SwingUtilities.invokeLater(() -> {
+                    if (current == watcher) {
+                        clear();
+                        names.forEach(WatchedListModel.this::insertSorted);
+                        showEmptyText();
+                    }
+                });
+            }
+
+            @Override
+            public void added(String name) {
+                SwingUtilities.invokeLater(() -> {
+                    if (current == watcher) {
+                        removeElement(emptyText);
+                        insertSorted(name);
+                    }
+                });
+            }
+
+            @Override
+            public void removed(String name) {
+                SwingUtilities.invokeLater(() -> {
+                    if (current == watcher) {
+                        removeElement(name);
+                        showEmptyText();
+                    }
+                });
+            }
+        });
+    }
+
+    private void insertSorted(String name) {
+        int index = 0;
+        while (index < size() && String.CASE_INSENSITIVE_ORDER.compare(get(index), name) < 0) {
+            index++;
+        }
+        if (index >= size() || !get(index).equals(name)) {
+            add(index, name);
+        }
+    }
+
+    private void showEmptyText() {
+        if (isEmpty()) {
+            addElement(emptyText);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.launcher.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Общее хранилище файлов по содержимому: store/<sha1>.
+ * Одинаковые client.jar и моды разных серверов хранятся один раз, а в папки серверов
+ * ставятся жёсткими ссылками на них (если файловая система не умеет ссылки – копиями).
+ * Для известных адресов в store/urls.properties запоминается хеш, поэтому повторная установка
+ * того же файла для другого сервера обходится без скачивания. Время попадания файла в хранилище
+ * хранится в store/adopted.properties, а не во времени изменения blob: blob делит его со всеми ссылками.
+ * Файлы, на которые больше не ссылается ни один сервер, удаляются сборкой мусора gc().
+ */
+public class ContentStore {
+
+    private static final String URLS_FILE = "urls.properties";
+    private static final String ADOPTED_FILE = "adopted.properties";
+    // Не трогаем только что добавленные файлы: их ссылку могут ставить прямо сейчас
+    private static final long GC_GRACE_MS = 60 * 60 * 1000L;
+
+    private static ContentStore defaultStore;
+
+    private final File root;
+    private final File urlsFile;
+    private final File adoptedFile;
+    private final HashCache hashCache;
+    private final Properties urls = new Properties();
+    // sha1 -> время (мс), когда blob создан через adopt()
+    private final Properties adopted = new Properties();
+
+    public ContentStore(File root, HashCache hashCache) {
+        this.root = root;
+        this.urlsFile = new File(root, URLS_FILE);
+        this.adoptedFile = new File(root, ADOPTED_FILE);
+        this.hashCache = hashCache;
+        load(urls, urlsFile);
+        load(adopted, adoptedFile);
+    }
+
+    // Общее хранилище лаунчера
+    public static synchronized ContentStore getDefault() {
+        if (defaultStore == null) {
+            defaultStore = new ContentStore(new File("store"), HashCache.getDefault());
+        }
+        return defaultStore;
+    }
+
+    public File blob(String sha1) {
+        return new File(root, sha1.toLowerCase(Locale.ROOT));
+    }
+
+    public synchronized boolean contains(String sha1) {
+        return blob(sha1).isFile();
+    }
+
+    // Хеш файла, уже скачанного когда-то по этому адресу, или null
+    public synchronized String sha1ForUrl(String url) {
+        String sha1 = urls.getProperty(url);
+        return sha1 != null && contains(sha1) ? sha1 : null;
+    }
+
+    // Ставит файл из хранилища по пути target; false, если такого файла в хранилище нет
+    public synchronized boolean materialize(String sha1, File target) throws IOException {
+        File blob = blob(sha1);
+        if (!blob.isFile()) {
+            return false;
+        }
+        // Ссылки делят содержимое с хранилищем: файл, изменённый в папке сервера, портит и его
+        if (!blob.getName().equals(hashCache.sha1(blob))) {
+            System.out.println("Файл хранилища повреждён, удаляем: " + blob.getName());
+            blob.delete();
+            hashCache.forget(blob);
+            return false;
+        }
+        if (target.exists() && Files.isSameFile(target.toPath(), blob.toPath())) {
+            return true;
+        }
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        Files.deleteIfExists(target.toPath());
+        hashCache.forget(target);
+        link(blob, target);
+        return true;
+    }
+
+    // Переносит скачанный файл в хранилище и ставит на его место ссылку; возвращает хеш
+    public synchronized String adopt(File file, String url) throws IOException {
+        String sha1 = hashCache.sha1(file);
+        File blob = blob(sha1);
+        if (!blob.isFile()) {
+            root.mkdirs();
+            try {
+                Files.move(file.toPath(), blob.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                // Хранилище на другом томе
+                Files.copy(file.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Отсчёт GC_GRACE_MS идёт от попадания в хранилище: перенесённый файл сохраняет старое время
+            // изменения. Сам blob не трогаем – время изменения у него общее со ссылками в папках серверов
+            adopted.setProperty(blob.getName(), Long.toString(System.currentTimeMillis()));
+            save(adopted, adoptedFile, "sha1 -> adopted at (ms)");
+        }
+        if (!Files.exists(file.toPath()) || !Files.isSameFile(file.toPath(), blob.toPath())) {
+            Files.deleteIfExists(file.toPath());
+            hashCache.forget(file);
+            link(blob, file);
+        }
+        if (url != null && !sha1.equals(urls.getProperty(url))) {
+            urls.setProperty(url, sha1);
+            save(urls, urlsFile, "download url -> sha1");
+        }
+        return sha1;
+    }
+
+    private void link(File blob, File target) throws IOException {
+        try {
+            Files.createLink(target.toPath(), blob.toPath());
+        } catch (UnsupportedOperationException | IOException ex) {
+            // FAT32/exFAT, сетевой диск или другой том – обычная копия
+            Files.copy(blob.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Удаляет файлы хранилища, которых нет ни в одной папке серверов и нет среди extraReferences
+    // (например, моды сохранённых профилей); возвращает число удалённых
+    public synchronized int gc(File versionDir, Set<String> extraReferences) {
+        Set<String> referenced = new HashSet<>(extraReferences);
+        for (File file : instanceFiles(versionDir)) {
+            try {
+                referenced.add(hashCache.sha1(file));
+            } catch (IOException ex) {
+                System.out.println("Не удалось проверить " + file.getPath() + ": " + ex.getMessage());
+                // Не знаем, на что ссылается файл, – ничего не удаляем
+                return 0;
+            }
+        }
+        File[] blobs = root.listFiles((dir, name) -> name.length() == 40);
+        if (blobs == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        long freed = 0;
+        for (File blob : blobs) {
+            if (referenced.contains(blob.getName()) || now - addedAt(blob) < GC_GRACE_MS) {
+                continue;
+            }
+            long size = blob.length();
+            if (blob.delete()) {
+                hashCache.forget(blob);
+                removed++;
+                freed += size;
+            }
+        }
+        if (urls.values().removeIf(sha1 -> !blob((String) sha1).isFile())) {
+            save(urls, urlsFile, "download url -> sha1");
+        }
+        if (adopted.keySet().removeIf(sha1 -> !blob((String) sha1).isFile())) {
+            save(adopted, adoptedFile, "sha1 -> adopted at (ms)");
+        }
+        hashCache.save();
+        if (removed > 0) {
+            System.out.println("Хранилище: удалено неиспользуемых файлов " + removed + ", освобождено "
+                    + freed / (1024 * 1024) + " МБ");
+        }
+        return removed;
+    }
+
+    // Файлы серверов, которые могут ссылаться на хранилище: client.jar и моды (включая отключённые)
+    private static List<File> instanceFiles(File versionDir) {
+        List<File> files = new ArrayList<>();
+        File[] instances = versionDir.listFiles(File::isDirectory);
+        if (instances == null) {
+            return files;
+        }
+        for (File instance : instances) {
+            File clientJar = new File(instance, "client.jar");
+            if (clientJar.isFile()) {
+                files.add(clientJar);
+            }
+            File modsDir = new File(instance, "mods");
+            addJars(modsDir, files);
+            addJars(new File(modsDir, "disabled"), files);
+        }
+        return files;
+    }
+
+    private static void addJars(File dir, List<File> out) {
+        File[] jars = dir.listFiles((d, name) -> name.toLowerCase(Locale.ROOT).endsWith(".jar"));
+        if (jars != null) {
+            for (File jar : jars) {
+                if (jar.isFile()) {
+                    out.add(jar);
+                }
+            }
+        }
+    }
+
+    // Когда blob появился в хранилище: время adopt() или, если записи нет, время изменения файла
+    private long addedAt(File blob) {
+        long added = blob.lastModified();
+        try {
+            added = Math.max(added, Long.parseLong(adopted.getProperty(blob.getName(), "0")));
+        } catch (NumberFormatException ex) {
+            // Повреждённая запись – остаётся время изменения
+        }
+        return added;
+    }
+
+    private static void load(Properties properties, File file) {
+        if (file.isFile()) {
+            try (FileInputStream fis = new FileInputStream(file)) {
+                properties.load(fis);
+            } catch (IOException ex) {
+                System.out.println("Не удалось прочитать " + file.getPath() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private void save(Properties properties, File file, String comment) {
+        root.mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            properties.store(fos, comment);
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить " + file.getPath() + ": " + ex.getMessage());
+        }
+    }
+}
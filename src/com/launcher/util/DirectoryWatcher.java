@@ -0,0 +1,266 @@
+package com.launcher.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Слежение за папками одного сервера (mods, shaderpacks, resourcepacks) через WatchService.
+ * Для каждой папки в памяти держится список имён файлов: подписчик один раз получает полный список,
+ * а дальше только добавленные, удалённые и изменённые файлы. Изменения файла сообщаются один раз,
+ * когда он DEBOUNCE_MS не менялся: копирование большого jar не превращается в сотни событий.
+ * Папки, которых ещё нет, подхватываются, когда появляются. Все подписчики вызываются из фонового
+ * потока наблюдателя – в Swing события нужно переносить через invokeLater.
+ */
+public class DirectoryWatcher implements Closeable {
+
+    private static final long DEBOUNCE_MS = 500;
+
+    public interface Listener {
+        // Полный список файлов папки (пустой, если папки нет); вызывается первым
+        void reset(List<String> names);
+
+        void added(String name);
+
+        void removed(String name);
+
+        // Файл дописан или заменён на месте (например, ещё копируется)
+        default void changed(String name) {
+        }
+    }
+
+    private static class Subscription {
+        final Path dir;
+        final Predicate<String> filter;
+        final Listener listener;
+        final Set<String> names = new TreeSet<>();
+        // Изменённые файлы, о которых ещё не сообщили: имя -> время последнего изменения
+        final Map<String, Long> changed = new HashMap<>();
+
+        Subscription(Path dir, Predicate<String> filter, Listener listener) {
+            this.dir = dir;
+            this.filter = filter;
+            this.listener = listener;
+        }
+    }
+
+    private final Path root;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    // Зарегистрированные папки: подписанные и их предки до root, чтобы заметить создание папки
+    private final Map<Path, WatchKey> registered = new HashMap<>();
+    private WatchService service;
+    private volatile boolean closed;
+
+    public DirectoryWatcher(File root) {
+        this.root = root.toPath().toAbsolutePath().normalize();
+    }
+
+    // Подписка на папку relativeDir внутри root; только до start()
+    public void watch(String relativeDir, Predicate<String> filter, Listener listener) {
+        if (service != null) {
+            throw new IllegalStateException("Наблюдатель уже запущен");
+        }
+        subscriptions.add(new Subscription(root.resolve(relativeDir).normalize(), filter, listener));
+    }
+
+    // Первый обход папок и все события идут в отдельном потоке, вызывающий поток не ждёт диска
+    public void start() throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+        Thread thread = new Thread(this::run, "watcher-" + root.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            // Сначала регистрируем папки, затем читаем: так не теряются файлы, появившиеся между этими шагами
+            registerAll();
+            for (Subscription sub : subscriptions) {
+                sub.names.addAll(list(sub));
+                sub.listener.reset(new ArrayList<>(sub.names));
+            }
+            while (!closed) {
+                long wait = nextChangeDelay();
+                WatchKey key = wait < 0 ? service.take() : service.poll(wait, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        handle(dir, event);
+                    }
+                    if (!key.reset()) {
+                        // Папку удалили – при повторном создании её зарегистрирует registerAll
+                        registered.remove(dir);
+                    }
+                }
+                reportChanges();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ex) {
+            // Наблюдатель закрыт
+        } catch (RuntimeException ex) {
+            if (!closed) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void handle(Path dir, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            // Очередь событий переполнена – сверяем всё заново
+            registerAll();
+            for (Subscription sub : subscriptions) {
+                resync(sub);
+            }
+            return;
+        }
+        Path child = dir.resolve((Path) event.context());
+        String name = child.getFileName().toString();
+        boolean structural = false;
+        for (Subscription sub : subscriptions) {
+            if (sub.dir.startsWith(child)) {
+                // Появилась или пропала сама подписанная папка либо её предок
+                structural = true;
+            }
+        }
+        if (structural) {
+            registerAll();
+        }
+        for (Subscription sub : subscriptions) {
+            if (structural && sub.dir.startsWith(child)) {
+                resync(sub);
+            } else if (sub.dir.equals(dir) && sub.filter.test(name)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    if (Files.exists(child) && sub.names.add(name)) {
+                        sub.listener.added(name);
+                    }
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    sub.changed.remove(name);
+                    if (sub.names.remove(name)) {
+                        sub.listener.removed(name);
+                    }
+                } else if (sub.names.contains(name)) {
+                    sub.changed.put(name, System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    // Сколько ждать до ближайшего сообщения об изменении; -1 – ждать нечего
+    private long nextChangeDelay() {
+        long next = Long.MAX_VALUE;
+        for (Subscription sub : subscriptions) {
+            for (long time : sub.changed.values()) {
+                next = Math.min(next, time + DEBOUNCE_MS);
+            }
+        }
+        return next == Long.MAX_VALUE ? -1 : Math.max(1, next - System.currentTimeMillis());
+    }
+
+    // Сообщает об изменённых файлах, которые успокоились
+    private void reportChanges() {
+        long now = System.currentTimeMillis();
+        for (Subscription sub : subscriptions) {
+            Iterator<Map.Entry<String, Long>> it = sub.changed.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                if (now - entry.getValue() >= DEBOUNCE_MS) {
+                    it.remove();
+                    if (sub.names.contains(entry.getKey())) {
+                        sub.listener.changed(entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    // Сравнивает список в памяти с диском и сообщает только разницу
+    private void resync(Subscription sub) {
+        Set<String> actual = list(sub);
+        for (String name : new ArrayList<>(sub.names)) {
+            if (!actual.contains(name)) {
+                sub.names.remove(name);
+                sub.changed.remove(name);
+                sub.listener.removed(name);
+            }
+        }
+        for (String name : actual) {
+            if (sub.names.add(name)) {
+                sub.listener.added(name);
+            }
+        }
+    }
+
+    // Регистрирует подписанные папки и их существующих предков вплоть до root (или ближайшего существующего)
+    private void registerAll() {
+        for (Subscription sub : subscriptions) {
+            for (Path p = sub.dir; p != null; p = p.getParent()) {
+                if (Files.isDirectory(p)) {
+                    register(p);
+                    if (root.startsWith(p)) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void register(Path dir) {
+        WatchKey key = registered.get(dir);
+        if (key != null && key.isValid()) {
+            return;
+        }
+        try {
+            registered.put(dir, dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+        } catch (IOException ex) {
+            System.out.println("Не удалось следить за папкой " + dir + ": " + ex.getMessage());
+        }
+    }
+
+    private static Set<String> list(Subscription sub) {
+        Set<String> names = new TreeSet<>();
+        if (!Files.isDirectory(sub.dir)) {
+            return names;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(sub.dir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (sub.filter.test(name)) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать папку " + sub.dir + ": " + ex.getMessage());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,189 @@
+package com.launcher.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Постоянный кеш SHA-1 файлов: путь -> (размер, время изменения, хеш).
+ * Хранится в компактном бинарном файле cache/hashes.bin; файл пересчитывается,
+ * только если его размер или время изменения отличаются от сохранённых.
+ * Используется проверкой ассетов, модов и библиотек.
+ */
+public class HashCache {
+
+    private static final int MAGIC = 0x514D4843; // "QMHC"
+    private static final int VERSION = 1;
+    private static final int SHA1_LENGTH = 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static HashCache defaultCache;
+
+    private final File file;
+    // Читается без блокировки; изменения и сохранение идут под lock, чтобы save() писал согласованный снимок
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private boolean dirty;
+
+    public HashCache(File file) {
+        this.file = file;
+        load();
+    }
+
+    // Общий кеш лаунчера
+    public static synchronized HashCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new HashCache(new File("cache", "hashes.bin"));
+        }
+        return defaultCache;
+    }
+
+    public String sha1(File f) throws IOException {
+        Path path = f.toPath();
+        return sha1(path, Files.readAttributes(path, BasicFileAttributes.class));
+    }
+
+    // Вариант для вызывающего кода, который уже прочитал атрибуты файла
+    public String sha1(Path path, BasicFileAttributes attrs) throws IOException {
+        String key = path.toAbsolutePath().normalize().toString();
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.size == size && entry.modified == modified) {
+            return toHex(entry.sha1);
+        }
+        byte[] sha1 = computeSha1(path.toFile());
+        synchronized (lock) {
+            entries.put(key, new Entry(size, modified, sha1));
+            dirty = true;
+        }
+        return toHex(sha1);
+    }
+
+    // Убирает запись, например, после удаления файла
+    public void forget(File f) {
+        synchronized (lock) {
+            if (entries.remove(f.toPath().toAbsolutePath().normalize().toString()) != null) {
+                dirty = true;
+            }
+        }
+    }
+
+    // Сохраняет кеш на диск, если он менялся; записи об удалённых файлах отбрасываются
+    public void save() {
+        synchronized (lock) {
+            if (dirty) {
+                dirty = false;
+                entries.keySet().removeIf(key -> !new File(key).exists());
+                write(new LinkedHashMap<>(entries));
+            }
+        }
+    }
+
+    private void write(Map<String, Entry> snapshot) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue().size);
+                out.writeLong(e.getValue().modified);
+                out.write(e.getValue().sha1);
+            }
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить кеш хешей: " + ex.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            System.out.println("Не удалось сохранить кеш хешей: " + ex.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.out.println("Кеш хешей другого формата, пересоздаём: " + file.getPath());
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                byte[] sha1 = new byte[SHA1_LENGTH];
+                in.readFully(sha1);
+                entries.put(key, new Entry(size, modified, sha1));
+            }
+        } catch (EOFException ex) {
+            System.out.println("Кеш хешей повреждён, пересоздаём: " + file.getPath());
+            entries.clear();
+        } catch (IOException ex) {
+            System.out.println("Не удалось прочитать кеш хешей: " + ex.getMessage());
+            entries.clear();
+        }
+    }
+
+    public static byte[] computeSha1(File f) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new FileInputStream(f)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static class Entry {
+        final long size;
+        final long modified;
+        final byte[] sha1;
+
+        Entry(long size, long modified, byte[] sha1) {
+            this.size = size;
+            this.modified = modified;
+            this.sha1 = sha1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.launcher.util;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Общий исполнитель фоновых задач лаунчера: каждая задача идёт в своём виртуальном потоке (JDK 21),
+ * а результат или ошибка передаются обратно в EDT. Диск и сеть из EDT не трогаются, чтобы окно
+ * не замирало. coalesce() сворачивает частые одинаковые задачи (запись settings.txt) в одну;
+ * несделанные записи выполняются при выходе из лаунчера.
+ */
+public final class LauncherExecutor {
+
+    // Фоновая часть задачи; может бросать исключения – они попадут в onError
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("launcher-task-", 0).factory());
+    // Ключ -> последняя ещё не выполненная версия задачи
+    private static final Map<String, Runnable> PENDING = new ConcurrentHashMap<>();
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    static {
+        // Виртуальные потоки не держат JVM – отложенные записи доделываем сами
+        Runtime.getRuntime().addShutdownHook(new Thread(LauncherExecutor::flush, "launcher-flush"));
+    }
+
+    private LauncherExecutor() {
+    }
+
+    // Выполняет task в фоне и передаёт результат в onSuccess в EDT; ошибка – в onError, тоже в EDT
+    public static <T> void run(Task<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        EXECUTOR.execute(() -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> onError.accept(ex));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+        });
+    }
+
+    public static <T> void run(Task<T> task, Consumer<T> onSuccess) {
+        run(task, onSuccess, Exception::printStackTrace);
+    }
+
+    // Фоновая задача без ответа в EDT
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    // Пока задача с этим ключом ждёт очереди, новая заменяет её; задачи одного ключа не идут одновременно
+    public static void coalesce(String key, Runnable task) {
+        if (PENDING.put(key, task) == null) {
+            EXECUTOR.execute(() -> runPending(key));
+        }
+    }
+
+    // Выполняет все отложенные задачи в текущем потоке
+    public static void flush() {
+        for (String key : PENDING.keySet()) {
+            runPending(key);
+        }
+    }
+
+    private static void runPending(String key) {
+        synchronized (LOCKS.computeIfAbsent(key, k -> new Object())) {
+            Runnable task = PENDING.remove(key);
+            if (task != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+}